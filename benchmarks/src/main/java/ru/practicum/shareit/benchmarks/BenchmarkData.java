@@ -0,0 +1,102 @@
+package ru.practicum.shareit.benchmarks;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookingGetDto;
+import ru.practicum.shareit.booking.dto.BookingGetItemDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Детерминированные наборы данных для бенчмарков: одинаковый seed даёт одинаковые списки в каждом прогоне.
+ */
+@UtilityClass
+public class BenchmarkData {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    public static User user(long id) {
+        return new User(id, "user" + id, "user" + id + "@mail.ru");
+    }
+
+    public static List<ItemRequest> requests(int count) {
+        List<ItemRequest> requests = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            requests.add(new ItemRequest(id, "Нужна вещь номер " + id, 2L, BASE.minusDays(id)));
+        }
+        return requests;
+    }
+
+    // Каждая вторая вещь создана по запросу
+    public static List<Item> items(int count, List<ItemRequest> requests) {
+        User owner = user(1L);
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            ItemRequest request = id % 2 == 0 && !requests.isEmpty() ? requests.get((int) (id % requests.size())) : null;
+            items.add(new Item(id, "Дрель " + id, "Простая дрель номер " + id, true, owner, request));
+        }
+        return items;
+    }
+
+    public static List<Booking> bookings(List<Item> items) {
+        User booker = user(2L);
+        List<Booking> bookings = new ArrayList<>(items.size());
+        long id = 1;
+        for (Item item : items) {
+            LocalDateTime start = BASE.plusHours(id);
+            Booking booking = new Booking(start, start.plusDays(1), item, booker, BookingStatus.APPROVED);
+            booking.setId(id++);
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    public static List<CommentDto> comments(long itemId) {
+        List<CommentDto> comments = new ArrayList<>(COMMENTS_PER_ITEM);
+        for (long i = 1; i <= COMMENTS_PER_ITEM; i++) {
+            comments.add(new CommentDto(itemId * COMMENTS_PER_ITEM + i, "Отличная вещь", "user2", BASE.minusDays(i)));
+        }
+        return comments;
+    }
+
+    public static Map<ItemRequest, List<Item>> itemsByRequest(List<Item> items) {
+        return items.stream()
+                .filter(item -> item.getItemRequest() != null)
+                .collect(Collectors.groupingBy(Item::getItemRequest, HashMap::new, Collectors.toList()));
+    }
+
+    // Как в выдаче вещей владельца: у части вещей нет следующего бронирования, порядок перемешан
+    public static List<ItemDto> ownerItemDtos(int count) {
+        Random random = new Random(count);
+        List<ItemDto> itemDtos = new ArrayList<>(count);
+        for (Item item : items(count, Collections.emptyList())) {
+            BookingGetItemDto next = random.nextInt(4) == 0 ? null
+                    : new BookingGetItemDto(item.getId(), 2L, BASE.plusHours(random.nextInt(count * 2)), BASE.plusDays(30));
+            BookingGetItemDto last = new BookingGetItemDto(item.getId() + count, 2L, BASE.minusDays(2), BASE.minusDays(1));
+            itemDtos.add(ItemMapper.toItemDtoWithBookingAndComments(item, last, next, comments(item.getId())));
+        }
+        Collections.shuffle(itemDtos, random);
+        return itemDtos;
+    }
+
+    public static List<BookingGetDto> bookingGetDtos(int count) {
+        return bookings(items(count, Collections.emptyList())).stream()
+                .map(BookingMapper::toBookingGetDto)
+                .collect(Collectors.toList());
+    }
+}
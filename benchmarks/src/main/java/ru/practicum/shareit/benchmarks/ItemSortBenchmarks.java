@@ -0,0 +1,54 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сортировка вещей владельца по ближайшему бронированию.
+ * Сортировка идёт на месте, поэтому каждый вызов работает с копией исходного списка:
+ * copy отдельно показывает, сколько из этого времени занимает само копирование.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemSortBenchmarks {
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<ItemDto> itemDtos;
+
+    @Setup
+    public void setUp() {
+        itemDtos = BenchmarkData.ownerItemDtos(size);
+    }
+
+    @Benchmark
+    public List<ItemDto> copy() {
+        return new ArrayList<>(itemDtos);
+    }
+
+    @Benchmark
+    public List<ItemDto> sortByNextBooking() {
+        List<ItemDto> sorted = new ArrayList<>(itemDtos);
+        sorted.sort(ItemServiceImpl.NEXT_BOOKING_ORDER);
+        return sorted;
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.BookingGetItemDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestLongDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Маппинг сущностей в DTO на размерах страницы выдачи (10) и крупной выборки (1000).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmarks {
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private Map<Long, BookingGetItemDto> lastBookings;
+    private Map<Long, BookingGetItemDto> nextBookings;
+    private Map<Long, List<CommentDto>> comments;
+    private List<ItemRequest> requests;
+    private Map<ItemRequest, List<Item>> itemsByRequest;
+
+    @Setup
+    public void setUp() {
+        requests = BenchmarkData.requests(Math.max(1, size / 10));
+        items = BenchmarkData.items(size, requests);
+        bookings = BenchmarkData.bookings(items);
+        itemsByRequest = BenchmarkData.itemsByRequest(items);
+        lastBookings = bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), BookingMapper::toBookingGetItemDto));
+        nextBookings = lastBookings;
+        comments = items.stream()
+                .collect(Collectors.toMap(Item::getId, item -> BenchmarkData.comments(item.getId())));
+    }
+
+    @Benchmark
+    public void toBookingGetDto(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingMapper.toBookingGetDto(booking));
+        }
+    }
+
+    @Benchmark
+    public void toItemDtoWithBookingAndComments(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(ItemMapper.toItemDtoWithBookingAndComments(item, lastBookings.get(item.getId()),
+                    nextBookings.get(item.getId()), comments.get(item.getId())));
+        }
+    }
+
+    @Benchmark
+    public List<ItemRequestLongDto> toListItemRequestDtoForOwner() {
+        return ItemRequestMapper.toListItemRequestDtoForOwner(requests, itemsByRequest);
+    }
+}
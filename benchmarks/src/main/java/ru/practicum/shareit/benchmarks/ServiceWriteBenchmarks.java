@@ -0,0 +1,101 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingGetDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись через сервисы на полном контексте сервера с H2 в памяти (профиль ci):
+ * транзакция, проверки, генерация id из последовательности и INSERT.
+ * Цифры сравнимы между собой и между прогонами на одной машине, но не с PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceWriteBenchmarks {
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private ItemService itemService;
+    private long itemId;
+    private long bookerId;
+    private LocalDateTime nextStart;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("ci")
+                .properties("spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.format_sql=false")
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        UserService userService = context.getBean(UserService.class);
+
+        long ownerId = userService.saveUser(new UserDto(null, "owner", "owner@mail.ru")).getId();
+        bookerId = userService.saveUser(new UserDto(null, "booker", "booker@mail.ru")).getId();
+        itemId = itemService.saveItem(ItemDto.builder().name("Дрель").description("Простая дрель").available(true).build(),
+                ownerId).getId();
+
+        // Оставить отзыв можно только после начавшегося бронирования: через сервис в прошлом его не создать
+        Item item = context.getBean(ItemRepository.class).getReferenceById(itemId);
+        User booker = context.getBean(UserRepository.class).getReferenceById(bookerId);
+        LocalDateTime pastStart = LocalDateTime.now().minusDays(2);
+        context.getBean(BookingRepository.class)
+                .save(new Booking(pastStart, pastStart.plusDays(1), item, booker, BookingStatus.APPROVED));
+
+        nextStart = LocalDateTime.now().plusDays(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Ожидающие бронирования друг с другом не конфликтуют, но интервалы всё равно разводятся, чтобы не зависеть от этого
+    @Benchmark
+    public BookingGetDto createBooking() {
+        LocalDateTime start = nextStart;
+        nextStart = start.plusHours(1);
+        return bookingService.createBooking(new BookingDto(itemId, start, start.plusMinutes(30)), bookerId);
+    }
+
+    @Benchmark
+    public CommentDto createComment() {
+        return itemService.createComment(CommentDto.builder().text("Отличная дрель").build(), itemId, bookerId);
+    }
+}
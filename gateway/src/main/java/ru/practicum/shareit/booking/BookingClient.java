@@ -4,38 +4,57 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.ServerCallTracer;
+import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpComponentsClientHttpRequestFactory requestFactory,
+                         @Value("${shareit-server.mode:BLOCKING}") ClientMode mode,
+                         WebClient.Builder webClientBuilder,
+                         InFlightRequests inFlightRequests,
+                         ServerCallTracer tracer) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                mode == ClientMode.REACTIVE ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                null,
+                inFlightRequests,
+                tracer
         );
     }
 
-    public ResponseEntity<Object> createBooking(Long userId, BookingGetDto requestDto) {
+    public Mono<ResponseEntity<Object>> createBooking(Long userId, BookingGetDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> updateBookingStatus(long bookingId, Boolean approved, long userId) {
+    public Mono<ResponseEntity<Object>> createBookings(Long userId, List<BookingGetDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> updateBookingStatus(long bookingId, Boolean approved, long userId) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
-    public ResponseEntity<Object> findBookingById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> findBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findAllBookingsByUser(Long userId, BookingState bookingState, int from, int size) {
+    public Mono<ResponseEntity<Object>> findAllBookingsByUser(Long userId, BookingState bookingState, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "state", bookingState.name(),
                 "from", from,
@@ -44,11 +63,28 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findAllBookingsByOwner(Long userId, BookingState bookingState, int from, int size) {
+    public Mono<ResponseEntity<Object>> findAllBookingsByOwner(Long userId, BookingState bookingState, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "state", bookingState.name(),
                 "from", from,
                 "size", size);
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
+
+    public Mono<ResponseEntity<Object>> findAllBookingsByUser(Long userId, BookingState bookingState, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", bookingState.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> findAllBookingsByOwner(Long userId, BookingState bookingState, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", bookingState.name(),
+                "cursor", cursor,
+                "size", size);
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
 }
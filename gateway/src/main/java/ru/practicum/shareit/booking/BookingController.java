@@ -4,11 +4,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.handler.BookingStateException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -21,41 +26,56 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                @RequestBody @Valid BookingGetDto requestDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                      @RequestBody @Valid BookingGetDto requestDto) {
         return bookingClient.createBooking(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                       @RequestBody @NotEmpty @Size(max = 1000)
+                                                       List<@NotNull @Valid BookingGetDto> requestDtos) {
+        return bookingClient.createBookings(userId, requestDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBookingStatus(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                @PathVariable("bookingId") Long bookingId,
-                                                @RequestParam("approved") Boolean approved) {
+    public Mono<ResponseEntity<Object>> updateBookingStatus(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                      @PathVariable("bookingId") Long bookingId,
+                                                      @RequestParam("approved") Boolean approved) {
         return bookingClient.updateBookingStatus(bookingId, approved, userId);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> findBookingById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                  @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> findBookingById(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                        @PathVariable Long bookingId) {
         return bookingClient.findBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllBookingsByUser(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                     @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> findAllBookingsByUser(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                           @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+                                                           @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState bookingState = BookingState.from(stateParam)
                 .orElseThrow(() -> new BookingStateException("Unknown state: " + stateParam));
+        if (cursor != null) {
+            return bookingClient.findAllBookingsByUser(userId, bookingState, cursor, size);
+        }
         return bookingClient.findAllBookingsByUser(userId, bookingState, from, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findAllBookingsByOwner(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                           @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
-                                                           @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
-                                                           @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
+    public Mono<ResponseEntity<Object>> findAllBookingsByOwner(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                 @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+                                                                 @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                                 @RequestParam(name = "size", defaultValue = "10") @Positive int size,
+                                                                 @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState bookingState = BookingState.from(stateParam)
                 .orElseThrow(() -> new BookingStateException("Unknown state: " + stateParam));
+        if (cursor != null) {
+            return bookingClient.findAllBookingsByOwner(userId, bookingState, cursor, size);
+        }
         return bookingClient.findAllBookingsByOwner(userId, bookingState, from, size);
     }
 }
@@ -1,126 +1,231 @@
 package ru.practicum.shareit.client;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final Set<String> NOT_FORWARDED_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "content-length", "date", "server");
 
-    public BaseClient(RestTemplate rest) {
+    protected final RestTemplate rest;
+    @Nullable
+    protected final WebClient web;
+    @Nullable
+    private final GatewayResponseCache responseCache;
+    @Nullable
+    private final InFlightRequests inFlightRequests;
+    @Nullable
+    private final ServerCallTracer tracer;
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient web, @Nullable GatewayResponseCache responseCache,
+                      @Nullable InFlightRequests inFlightRequests, @Nullable ServerCallTracer tracer) {
         this.rest = rest;
+        this.web = web;
+        this.responseCache = responseCache;
+        this.inFlightRequests = inFlightRequests;
+        this.tracer = tracer;
+    }
+
+    protected Mono<ResponseEntity<Object>> getCached(String path, @Nullable Long userId) {
+        if (responseCache == null) {
+            return get(path, userId, null);
+        }
+        log.debug("Запрос GET с проверкой ETag.");
+        String key = getClass().getSimpleName() + " " + path + " " + userId;
+        GatewayResponseCache.CachedResponse cached = responseCache.get(key);
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, cached != null ? cached.getEtag() : null)
+                .map(response -> responseCache.revalidate(key, cached, response));
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         log.debug("Запрос GET без id и параметров.");
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         log.debug("Запрос GET с id и без параметров.");
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         log.debug("Запрос GET с id и параметрами.");
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected ResponseEntity<Object> get(String path, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, @Nullable Map<String, Object> parameters) {
         log.debug("Запрос GET с параметрами и без id.");
         return makeAndSendRequest(HttpMethod.GET, path, null, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         log.debug("Запрос POST без id и параметров.");
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         log.debug("Запрос POST с id и без параметров.");
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         log.debug("Запрос POST с id и параметрами.");
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    // Тело передаётся серверу потоком через RestTemplate в любом режиме: чтение из сервлета всё равно блокирующее
+    protected Mono<ResponseEntity<Object>> postStream(String path, long userId, MediaType contentType, InputStream body) {
+        log.debug("Запрос POST с id и потоковым телом.");
+        HttpHeaders requestHeaders = defaultHeaders(userId, null);
+        requestHeaders.setContentType(contentType);
+        return traced(HttpMethod.POST, path, null, requestHeaders, () -> Mono.fromCallable(() -> {
+            try {
+                return rest.execute(path, HttpMethod.POST, request -> {
+                    request.getHeaders().addAll(requestHeaders);
+                    StreamUtils.copy(body, request.getBody());
+                }, response -> prepareGatewayResponse(response.getStatusCode(), response.getHeaders(),
+                        StreamUtils.copyToByteArray(response.getBody())));
+            } catch (HttpStatusCodeException e) {
+                return prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+            }
+        }));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         log.debug("Запрос PATCH без id и параметров.");
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         log.debug("Запрос PATCH c id, без параметров и тела.");
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         log.debug("Запрос PATCH с id и без параметров.");
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         log.debug("Запрос PATCH с id и параметрами.");
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         log.debug("Запрос DELETE без id и параметров.");
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         log.debug("Запрос DELETE с id и параметрами.");
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(method, path, userId, parameters, body, null);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String etag) {
+        HttpHeaders headers = defaultHeaders(userId, etag);
+        if (method == HttpMethod.GET && inFlightRequests != null) {
+            String key = getClass().getSimpleName() + " " + path + " " + userId + " " + etag
+                    + (parameters != null ? " " + new TreeMap<>(parameters) : "");
+            return inFlightRequests.execute(key, () -> exchange(method, path, headers, parameters, body));
+        }
+        return exchange(method, path, headers, parameters, body);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (web != null) {
+            return traced(method, path, parameters, headers, () -> exchangeReactive(method, path, headers, parameters, body));
+        }
+        return traced(method, path, parameters, headers,
+                () -> Mono.fromCallable(() -> exchangeBlocking(method, path, headers, parameters, body)));
+    }
+
+    // В span пишется полный путь на сервере, без параметров запроса
+    private Mono<ResponseEntity<Object>> traced(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                                HttpHeaders headers, Supplier<Mono<ResponseEntity<Object>>> call) {
+        if (tracer == null) {
+            return call.get();
+        }
+        String serverPath = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of()).getPath();
+        return tracer.trace(method, serverPath, headers, call);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchangeReactive(HttpMethod method, String path, HttpHeaders requestHeaders, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(requestHeaders));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> prepareGatewayResponse(response.getStatusCode(), response.getHeaders(), response.getBody()));
+    }
+
+    private <T> ResponseEntity<Object> exchangeBlocking(HttpMethod method, String path, HttpHeaders requestHeaders, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, requestHeaders);
+
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(shareitServerResponse.getStatusCode(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private HttpHeaders defaultHeaders(Long userId, @Nullable String etag) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
         return headers;
     }
 
-    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    // Тело ответа сервера уже в JSON, поэтому отдаём его клиенту как есть, без разбора в Object и обратно
+    private ResponseEntity<Object> prepareGatewayResponse(HttpStatus status, @Nullable HttpHeaders serverHeaders,
+                                                          @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!NOT_FORWARDED_HEADERS.contains(name.toLowerCase())) {
+                    headers.put(name, values);
+                }
+            });
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(headers);
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
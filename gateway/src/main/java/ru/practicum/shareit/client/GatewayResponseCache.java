@@ -0,0 +1,103 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU-кэш ответов сервера на GET-запросы. Ответ кэшируется только вместе с ETag, и каждое обращение
+ * переспрашивает сервер с If-None-Match, поэтому устаревшие данные клиенту не уходят: при 304 сервер
+ * не передаёт тело, а gateway отдаёт сохранённую копию.
+ */
+@Component
+public class GatewayResponseCache {
+    private final int maxEntries;
+    private final int maxBodySize;
+    private final Map<String, CachedResponse> responses;
+    private final Counter hits;
+    private final Counter misses;
+
+    public GatewayResponseCache(@Value("${shareit-server.cache.max-entries:1000}") int maxEntries,
+                                @Value("${shareit-server.cache.max-body-size:262144}") int maxBodySize,
+                                MeterRegistry registry) {
+        this.maxEntries = maxEntries;
+        this.maxBodySize = maxBodySize;
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > GatewayResponseCache.this.maxEntries;
+            }
+        };
+        this.hits = Counter.builder("shareit.gateway.cache.requests").tag("result", "hit")
+                .description("Ответы, подтверждённые сервером через 304 Not Modified")
+                .register(registry);
+        this.misses = Counter.builder("shareit.gateway.cache.requests").tag("result", "miss")
+                .register(registry);
+        Gauge.builder("shareit.gateway.cache.size", this, GatewayResponseCache::size)
+                .register(registry);
+    }
+
+    @Nullable
+    public synchronized CachedResponse get(String key) {
+        return responses.get(key);
+    }
+
+    /**
+     * Принимает ответ сервера на запрос, отправленный с ETag из {@code cached}, и возвращает ответ для клиента.
+     */
+    public ResponseEntity<Object> revalidate(String key, @Nullable CachedResponse cached, ResponseEntity<Object> response) {
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            hits.increment();
+            return cached.toResponse();
+        }
+        misses.increment();
+        String etag = response.getHeaders().getETag();
+        Object body = response.getBody();
+        if (response.getStatusCode() == HttpStatus.OK && etag != null && body instanceof byte[]
+                && ((byte[]) body).length <= maxBodySize) {
+            put(key, new CachedResponse(etag, response.getHeaders(), (byte[]) body));
+        } else if (cached != null) {
+            remove(key);
+        }
+        return response;
+    }
+
+    public synchronized int size() {
+        return responses.size();
+    }
+
+    private synchronized void put(String key, CachedResponse response) {
+        responses.put(key, response);
+    }
+
+    private synchronized void remove(String key) {
+        responses.remove(key);
+    }
+
+    public static class CachedResponse {
+        @Getter
+        private final String etag;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private CachedResponse(String etag, HttpHeaders headers, byte[] body) {
+            this.etag = etag;
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+            this.body = body;
+        }
+
+        private ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Склеивает одновременные одинаковые GET-запросы: к серверу уходит только первый, остальные ждут
+ * его ответ. Запись удаляется сразу по завершении запроса, так что ответы не кэшируются.
+ * Запрос к серверу доводится до конца, даже если все ждавшие его клиенты отключились.
+ */
+@Component
+public class InFlightRequests {
+    private final boolean enabled;
+    private final Map<String, CompletableFuture<Optional<ResponseEntity<Object>>>> requests = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public InFlightRequests(@Value("${shareit-server.coalesce-gets:true}") boolean enabled, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.coalesced = Counter.builder("shareit.gateway.coalesced.requests")
+                .description("GET-запросы, получившие ответ уже отправленного одинакового запроса")
+                .register(registry);
+    }
+
+    public Mono<ResponseEntity<Object>> execute(String key, Supplier<Mono<ResponseEntity<Object>>> request) {
+        if (!enabled) {
+            return request.get();
+        }
+        return Mono.defer(() -> {
+            CompletableFuture<Optional<ResponseEntity<Object>>> flight = new CompletableFuture<>();
+            CompletableFuture<Optional<ResponseEntity<Object>>> existing = requests.putIfAbsent(key, flight);
+            if (existing != null) {
+                coalesced.increment();
+                return await(existing);
+            }
+            // Запрос к серверу подписан отдельно от первого клиента: если тот отменит ожидание,
+            // ответ всё равно получат остальные. Запись убирается до того, как ответ станет виден ожидающим
+            Mono.defer(request).subscribe(
+                    response -> {
+                        requests.remove(key, flight);
+                        flight.complete(Optional.of(response));
+                    },
+                    e -> {
+                        requests.remove(key, flight);
+                        flight.completeExceptionally(e);
+                    },
+                    () -> {
+                        requests.remove(key, flight);
+                        flight.complete(Optional.empty());
+                    });
+            return await(flight);
+        });
+    }
+
+    // Каждый клиент ждёт свою копию: Mono.fromFuture при отмене отменяет future, а общий ответ отменять нельзя
+    private static Mono<ResponseEntity<Object>> await(CompletableFuture<Optional<ResponseEntity<Object>>> flight) {
+        return Mono.fromFuture(flight.copy()).flatMap(Mono::justOrEmpty);
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.propagation.Propagator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Span на каждый запрос шлюза к серверу. Заголовки трассы добавляются к запросу здесь, а не интерцептором Sleuth:
+ * интерцептор RestTemplate буферизует тело целиком, и потоковый импорт вещей перестал бы быть потоковым.
+ * Span создаётся при подписке, то есть в потоке запроса к шлюзу, где текущий span - серверный span шлюза.
+ * Склеенные одинаковые GET-запросы отправляются один раз и дают один span.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServerCallTracer {
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public Mono<ResponseEntity<Object>> trace(HttpMethod method, String path, HttpHeaders headers,
+                                              Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            Span span = tracer.spanBuilder()
+                    .name(method.name())
+                    .kind(Span.Kind.CLIENT)
+                    .remoteServiceName("shareit-server")
+                    .tag("http.method", method.name())
+                    .tag("http.path", path)
+                    .start();
+            propagator.inject(span.context(), headers, HttpHeaders::set);
+            return call.get()
+                    .doOnSuccess(response -> {
+                        if (response != null) {
+                            span.tag("http.status_code", String.valueOf(response.getStatusCodeValue()));
+                        }
+                    })
+                    .doOnError(span::error)
+                    .doFinally(signal -> span.end());
+        });
+    }
+}
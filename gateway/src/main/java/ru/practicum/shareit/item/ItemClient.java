@@ -2,12 +2,20 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.ServerCallTracer;
+import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
 import java.util.Map;
 
 @Service
@@ -15,28 +23,41 @@ public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpComponentsClientHttpRequestFactory requestFactory,
+                      @Value("${shareit-server.mode:BLOCKING}") ClientMode mode,
+                      WebClient.Builder webClientBuilder,
+                      GatewayResponseCache responseCache, InFlightRequests inFlightRequests,
+                      ServerCallTracer tracer) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                mode == ClientMode.REACTIVE ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                responseCache,
+                inFlightRequests,
+                tracer
         );
     }
 
-    public ResponseEntity<Object> saveItem(ItemDto itemDto, Long userId) {
+    public Mono<ResponseEntity<Object>> saveItem(ItemDto itemDto, Long userId) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> findItemById(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> importItems(Long userId, MediaType contentType, InputStream items) {
+        return postStream("/import", userId, contentType, items);
     }
 
-    public ResponseEntity<Object> updateItem(Long itemId, Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> findItemById(Long itemId, Long userId) {
+        return getCached("/" + itemId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(Long itemId, Long userId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> findAllItemsOfUser(Long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> findAllItemsOfUser(Long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -44,7 +65,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItemsByText(String text, int from, int size) {
+    public Mono<ResponseEntity<Object>> searchItemsByText(String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -53,7 +74,7 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", parameters);
     }
 
-    public ResponseEntity<Object> createComment(Long itemId, Long userId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> createComment(Long itemId, Long userId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
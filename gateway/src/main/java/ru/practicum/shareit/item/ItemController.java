@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 import java.util.Collections;
 
 @RestController
@@ -22,45 +26,52 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> saveItem(@RequestHeader(USER_ID_HEADER) Long userId,
-                                             @RequestBody @Valid ItemDto dto) {
+    public Mono<ResponseEntity<Object>> saveItem(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                   @RequestBody @Valid ItemDto dto) {
         return itemClient.saveItem(dto, userId);
     }
 
+    // Вещи проверяет сервер по мере чтения, шлюз не разбирает тело, чтобы не держать загрузку в памяти
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<Object>> importItems(@RequestHeader(USER_ID_HEADER) @Positive Long userId,
+                                                    HttpServletRequest request) throws IOException {
+        return itemClient.importItems(userId, MediaType.valueOf(request.getContentType()), request.getInputStream());
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Object> findItemById(@RequestHeader(USER_ID_HEADER) @Positive Long userId,
-                                               @PathVariable("id") @Positive Long itemId) {
+    public Mono<ResponseEntity<Object>> findItemById(@RequestHeader(USER_ID_HEADER) @Positive Long userId,
+                                                     @PathVariable("id") @Positive Long itemId) {
         return itemClient.findItemById(itemId, userId);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(USER_ID_HEADER) Long userId,
-                                             @PathVariable("id") Long itemId,
-                                             @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                   @PathVariable("id") Long itemId,
+                                                   @RequestBody ItemDto itemDto) {
         return itemClient.updateItem(itemId, userId, itemDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllItemsOfUser(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                      @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                                      @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> findAllItemsOfUser(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                                                            @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
         return itemClient.findAllItemsOfUser(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByText(@RequestParam("text") String text,
-                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> searchItemsByText(@RequestParam("text") String text,
+                                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
         if (!StringUtils.hasText(text)) {
-            return ResponseEntity.ok(Collections.emptyList());
+            return Mono.just(ResponseEntity.ok(Collections.emptyList()));
         }
         return itemClient.searchItemsByText(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(USER_ID_HEADER) Long userId,
-                                             @PathVariable("itemId") @Positive Long itemId,
-                                             @Valid @RequestBody CommentDto comment) {
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                   @PathVariable("itemId") @Positive Long itemId,
+                                                   @Valid @RequestBody CommentDto comment) {
         return itemClient.createComment(itemId, userId, comment);
     }
 }
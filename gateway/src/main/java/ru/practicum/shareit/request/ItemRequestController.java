@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -20,26 +21,30 @@ public class ItemRequestController {
     private final ItemRequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(USER_ID_HEADER) @Positive Long userId,
-                                                @Valid @RequestBody ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createRequest(@RequestHeader(USER_ID_HEADER) @Positive Long userId,
+                                                      @Valid @RequestBody ItemRequestDto itemRequestDto) {
         return requestClient.createRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findUserRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> findUserRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
         return requestClient.findUserRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> findAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
-                                          @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                          @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> findAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                                @RequestParam(name = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            return requestClient.findAllRequests(userId, cursor, size);
+        }
         return requestClient.findAllRequests(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> findRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                           @PathVariable(name = "requestId") Long requestId) {
+    public Mono<ResponseEntity<Object>> findRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                 @PathVariable(name = "requestId") Long requestId) {
         return requestClient.findRequestById(userId, requestId);
     }
 }
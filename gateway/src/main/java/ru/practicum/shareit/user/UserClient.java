@@ -4,42 +4,57 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.InFlightRequests;
+import ru.practicum.shareit.client.ServerCallTracer;
+import reactor.core.publisher.Mono;
 
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpComponentsClientHttpRequestFactory requestFactory,
+                      @Value("${shareit-server.mode:BLOCKING}") ClientMode mode,
+                      WebClient.Builder webClientBuilder,
+                      GatewayResponseCache responseCache, InFlightRequests inFlightRequests,
+                      ServerCallTracer tracer) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                mode == ClientMode.REACTIVE ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                responseCache,
+                inFlightRequests,
+                tracer
         );
     }
 
-    public ResponseEntity<Object> findAllUsers() {
-        return get("");
+    public Mono<ResponseEntity<Object>> findAllUsers() {
+        return getCached("", null);
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> findUserById(long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Object>> findUserById(long userId) {
+        return getCached("/" + userId, null);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public void deleteUserById(long userId) {
-        delete("/" + userId);
+    public Mono<ResponseEntity<Object>> deleteUserById(long userId) {
+        return delete("/" + userId);
     }
 
 }
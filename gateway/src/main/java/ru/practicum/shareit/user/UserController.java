@@ -5,6 +5,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -18,30 +19,29 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> findAllUsers() {
+    public Mono<ResponseEntity<Object>> findAllUsers() {
         return userClient.findAllUsers();
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto user) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody UserDto user) {
         return userClient.createUser(user);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable("id") Long userId,
-                                             @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable("id") Long userId,
+                                                   @RequestBody UserDto userDto) {
         return userClient.updateUser(userId, userDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> findUserById(@PathVariable("id") Long userId) {
+    public Mono<ResponseEntity<Object>> findUserById(@PathVariable("id") Long userId) {
         return userClient.findUserById(userId);
     }
 
     @DeleteMapping("/{id}")
-    public HttpStatus deleteUserById(@PathVariable("id") @Positive Long userId) {
-        userClient.deleteUserById(userId);
-        return HttpStatus.OK;
+    public Mono<HttpStatus> deleteUserById(@PathVariable("id") @Positive Long userId) {
+        return userClient.deleteUserById(userId).thenReturn(HttpStatus.OK);
     }
 
 }
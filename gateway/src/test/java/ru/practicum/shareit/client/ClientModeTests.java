@@ -0,0 +1,186 @@
+package ru.practicum.shareit.client;
+
+import lombok.SneakyThrows;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что шлюз передаёт запросы каждого метода серверу и отдаёт ответ сервера как есть.
+ * Наследники запускают одни и те же проверки в режимах BLOCKING и REACTIVE.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class ClientModeTests {
+    // Один сервер на оба режима: контексты поднимаются по очереди, а каждая проверка забирает свои запросы
+    static final MockWebServer SERVER = new MockWebServer();
+
+    static {
+        try {
+            SERVER.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getPort());
+    }
+
+    @Test
+    void getIsForwardedWithUserIdTest() {
+        SERVER.enqueue(json(200, "{\"id\":1,\"name\":\"Дрель\"}"));
+
+        webTestClient.get().uri("/items/1").header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody().json("{\"id\":1,\"name\":\"Дрель\"}");
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod()).isEqualTo("GET");
+        assertThat(request.getPath()).isEqualTo("/items/1");
+        assertThat(request.getHeader("X-Sharer-User-Id")).isEqualTo("2");
+    }
+
+    @Test
+    void getWithParametersTest() {
+        SERVER.enqueue(json(200, "[]"));
+
+        webTestClient.get().uri("/bookings/owner?state=FUTURE&from=5&size=5").header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+
+        assertThat(takeRequest().getPath()).isEqualTo("/bookings/owner?state=FUTURE&from=5&size=5");
+    }
+
+    @Test
+    void postIsForwardedWithBodyTest() {
+        SERVER.enqueue(json(201, "{\"id\":3,\"name\":\"user\",\"email\":\"user@mail.ru\"}"));
+
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"user\",\"email\":\"user@mail.ru\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().jsonPath("$.id").isEqualTo(3);
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod()).isEqualTo("POST");
+        assertThat(request.getPath()).isEqualTo("/users");
+        assertThat(request.getBody().readUtf8()).contains("\"name\":\"user\"").contains("\"email\":\"user@mail.ru\"");
+    }
+
+    @Test
+    void patchIsForwardedWithQueryTest() {
+        SERVER.enqueue(json(200, "{\"id\":5,\"status\":\"APPROVED\"}"));
+
+        webTestClient.patch().uri("/bookings/5?approved=true").header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("APPROVED");
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod()).isEqualTo("PATCH");
+        assertThat(request.getPath()).isEqualTo("/bookings/5?approved=true");
+    }
+
+    @Test
+    void deleteIsSentBeforeResponseTest() {
+        SERVER.enqueue(new MockResponse().setResponseCode(200));
+
+        webTestClient.delete().uri("/users/7")
+                .exchange()
+                .expectStatus().isOk();
+
+        RecordedRequest request = takeRequest();
+        assertThat(request.getMethod()).isEqualTo("DELETE");
+        assertThat(request.getPath()).isEqualTo("/users/7");
+    }
+
+    @Test
+    void serverErrorIsForwardedTest() {
+        SERVER.enqueue(json(404, "{\"error\":\"Пользователь не найден.\"}"));
+
+        webTestClient.patch().uri("/users/99")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"user\"}")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("Пользователь не найден.");
+
+        assertThat(takeRequest().getPath()).isEqualTo("/users/99");
+    }
+
+    @Test
+    void batchWithNullElementIsRejectedTest() {
+        int before = SERVER.getRequestCount();
+
+        webTestClient.post().uri("/bookings/batch").header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[null]")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(SERVER.getRequestCount()).isEqualTo(before);
+    }
+
+    @Test
+    void concurrentIdenticalGetsMakeOneServerCallTest() {
+        int before = SERVER.getRequestCount();
+        // Ответ задерживается, чтобы второй запрос пришёл, пока первый ещё ждёт сервер
+        SERVER.enqueue(json(200, "[{\"id\":1}]").setHeadersDelay(1, TimeUnit.SECONDS));
+
+        Flux.range(0, 2)
+                .flatMap(i -> Mono.fromCallable(() -> webTestClient.get().uri("/requests/all?from=0&size=10")
+                                .header("X-Sharer-User-Id", "1")
+                                .exchange()
+                                .expectStatus().isOk()
+                                .expectBody(String.class)
+                                .returnResult()
+                                .getResponseBody())
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .collectList()
+                .block(Duration.ofSeconds(10))
+                .forEach(body -> assertThat(body).isEqualTo("[{\"id\":1}]"));
+
+        assertThat(SERVER.getRequestCount() - before).isEqualTo(1);
+        takeRequest();
+    }
+
+    static MockResponse json(int status, String body) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body);
+    }
+
+    @SneakyThrows
+    static RecordedRequest takeRequest() {
+        RecordedRequest request = SERVER.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(request).as("запрос к серверу").isNotNull();
+        return request;
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import lombok.SneakyThrows;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class GatewayResponseCacheTests {
+    private static final MockWebServer SERVER = new MockWebServer();
+
+    static {
+        try {
+            SERVER.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getPort());
+    }
+
+    @Test
+    void notModifiedReturnsCachedBodyTest() {
+        SERVER.enqueue(withEtag("\"v1\"", "{\"id\":1,\"name\":\"user\"}"));
+        SERVER.enqueue(new MockResponse().setResponseCode(304).setHeader(HttpHeaders.ETAG, "\"v1\""));
+
+        getUser(1).expectStatus().isOk().expectBody().json("{\"id\":1,\"name\":\"user\"}");
+        getUser(1).expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v1\"")
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody().json("{\"id\":1,\"name\":\"user\"}");
+
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isNull();
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    void changedResponseReplacesCachedOneTest() {
+        SERVER.enqueue(withEtag("\"v1\"", "{\"id\":2,\"name\":\"user\"}"));
+        SERVER.enqueue(withEtag("\"v2\"", "{\"id\":2,\"name\":\"userUpdated\"}"));
+        SERVER.enqueue(new MockResponse().setResponseCode(304));
+
+        getUser(2).expectBody().jsonPath("$.name").isEqualTo("user");
+        getUser(2).expectStatus().isOk().expectBody().jsonPath("$.name").isEqualTo("userUpdated");
+        getUser(2).expectStatus().isOk().expectBody().jsonPath("$.name").isEqualTo("userUpdated");
+
+        takeRequest();
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"v1\"");
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"v2\"");
+    }
+
+    @Test
+    void responseWithoutEtagOrErrorIsNotCachedTest() {
+        SERVER.enqueue(new MockResponse().setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"id\":3}"));
+        SERVER.enqueue(new MockResponse().setResponseCode(404)
+                .setHeader(HttpHeaders.ETAG, "\"v1\"")
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"error\":\"Пользователь не найден.\"}"));
+        SERVER.enqueue(withEtag("\"v1\"", "{\"id\":3}"));
+
+        getUser(3).expectStatus().isOk();
+        getUser(3).expectStatus().isNotFound();
+        getUser(3).expectStatus().isOk();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isNull();
+        }
+    }
+
+    @Test
+    void cacheIsSeparatedByUserIdTest() {
+        SERVER.enqueue(withEtag("\"v1\"", "{\"id\":10,\"comments\":[]}"));
+        SERVER.enqueue(withEtag("\"v2\"", "{\"id\":10,\"lastBooking\":null,\"comments\":[]}"));
+
+        getItem(10, 1).expectStatus().isOk();
+        getItem(10, 2).expectStatus().isOk();
+
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isNull();
+        assertThat(takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isNull();
+    }
+
+    private WebTestClient.ResponseSpec getUser(long id) {
+        return webTestClient.get().uri("/users/" + id).exchange();
+    }
+
+    private WebTestClient.ResponseSpec getItem(long id, long userId) {
+        return webTestClient.get().uri("/items/" + id).header("X-Sharer-User-Id", String.valueOf(userId)).exchange();
+    }
+
+    private static MockResponse withEtag(String etag, String body) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.ETAG, etag)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body);
+    }
+
+    @SneakyThrows
+    private static RecordedRequest takeRequest() {
+        RecordedRequest request = SERVER.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(request).as("запрос к серверу").isNotNull();
+        return request;
+    }
+}
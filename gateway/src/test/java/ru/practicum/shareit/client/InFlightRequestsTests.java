@@ -0,0 +1,138 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightRequestsTests {
+    private static final ResponseEntity<Object> RESPONSE = ResponseEntity.ok("{\"id\":1}");
+
+    private SimpleMeterRegistry registry;
+    private InFlightRequests inFlightRequests;
+    private Sinks.One<ResponseEntity<Object>> server;
+    private AtomicInteger calls;
+    private Supplier<Mono<ResponseEntity<Object>>> request;
+
+    @BeforeEach
+    void start() {
+        registry = new SimpleMeterRegistry();
+        inFlightRequests = new InFlightRequests(true, registry);
+        server = Sinks.one();
+        calls = new AtomicInteger();
+        request = () -> {
+            calls.incrementAndGet();
+            return server.asMono();
+        };
+    }
+
+    @Test
+    void identicalRequestsShareOneCallTest() {
+        Mono<ResponseEntity<Object>> first = inFlightRequests.execute("GET /items/1", request);
+        Mono<ResponseEntity<Object>> second = inFlightRequests.execute("GET /items/1", request);
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> server.tryEmitValue(RESPONSE))
+                .assertNext(responses -> {
+                    assertThat(responses.getT1()).isSameAs(RESPONSE);
+                    assertThat(responses.getT2()).isSameAs(RESPONSE);
+                })
+                .verifyComplete();
+        assertThat(calls).hasValue(1);
+        assertThat(registry.get("shareit.gateway.coalesced.requests").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void differentKeysAreNotSharedTest() {
+        inFlightRequests.execute("GET /items/1", request).subscribe();
+        inFlightRequests.execute("GET /items/2", request).subscribe();
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void finishedRequestIsNotReusedTest() {
+        server.tryEmitValue(RESPONSE);
+
+        StepVerifier.create(inFlightRequests.execute("GET /items/1", request)).expectNext(RESPONSE).verifyComplete();
+        StepVerifier.create(inFlightRequests.execute("GET /items/1", request)).expectNext(RESPONSE).verifyComplete();
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void leaderCancellationDoesNotFailWaitersTest() {
+        Disposable leader = inFlightRequests.execute("GET /items/1", request).subscribe();
+        Mono<ResponseEntity<Object>> waiter = inFlightRequests.execute("GET /items/1", request);
+
+        StepVerifier.create(waiter)
+                .then(leader::dispose)
+                .then(() -> server.tryEmitValue(RESPONSE))
+                .expectNext(RESPONSE)
+                .verifyComplete();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void waiterCancellationDoesNotAffectLeaderTest() {
+        Mono<ResponseEntity<Object>> leader = inFlightRequests.execute("GET /items/1", request);
+
+        StepVerifier.create(leader)
+                .then(() -> inFlightRequests.execute("GET /items/1", request).subscribe().dispose())
+                .then(() -> server.tryEmitValue(RESPONSE))
+                .expectNext(RESPONSE)
+                .verifyComplete();
+    }
+
+    @Test
+    void errorIsPassedToAllWaitersAndNotKeptTest() {
+        Mono<ResponseEntity<Object>> first = inFlightRequests.execute("GET /items/1", request);
+        Mono<ResponseEntity<Object>> second = inFlightRequests.execute("GET /items/1", request);
+
+        StepVerifier.create(Flux.merge(first.materialize(), second.materialize()))
+                .then(() -> server.tryEmitError(new IllegalStateException("сервер недоступен")))
+                .expectNextMatches(signal -> "сервер недоступен".equals(signal.getThrowable().getMessage()))
+                .expectNextMatches(signal -> "сервер недоступен".equals(signal.getThrowable().getMessage()))
+                .verifyComplete();
+        assertThat(calls).hasValue(1);
+
+        server = Sinks.one();
+        server.tryEmitValue(RESPONSE);
+        StepVerifier.create(inFlightRequests.execute("GET /items/1", request))
+                .expectNext(RESPONSE)
+                .verifyComplete();
+    }
+
+    @Test
+    void emptyResponseCompletesWaitersTest() {
+        Mono<ResponseEntity<Object>> first = inFlightRequests.execute("GET /items/1", request);
+        Mono<ResponseEntity<Object>> second = inFlightRequests.execute("GET /items/1", request);
+
+        StepVerifier.create(Flux.merge(first, second))
+                .then(server::tryEmitEmpty)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void disabledCoalescingCallsServerEveryTimeTest() {
+        inFlightRequests = new InFlightRequests(false, registry);
+
+        inFlightRequests.execute("GET /items/1", request).subscribe();
+        inFlightRequests.execute("GET /items/1", request).subscribe();
+
+        assertThat(calls).hasValue(2);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "shareit-server.mode=REACTIVE")
+class ReactiveClientTests extends ClientModeTests {
+}
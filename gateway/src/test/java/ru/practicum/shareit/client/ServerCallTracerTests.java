@@ -0,0 +1,129 @@
+package ru.practicum.shareit.client;
+
+import brave.Span;
+import brave.TracingCustomizer;
+import brave.handler.MutableSpan;
+import brave.test.TestSpanHandler;
+import lombok.SneakyThrows;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.sleuth.sampler.probability=1.0")
+class ServerCallTracerTests {
+    private static final String TRACE_ID = "463ac35c9f6413ad48485a3953bb6124";
+    private static final String CALLER_SPAN_ID = "a2fb4a1d1a96d312";
+
+    private static final MockWebServer SERVER = new MockWebServer();
+    private static final TestSpanHandler SPANS = new TestSpanHandler();
+
+    static {
+        try {
+            SERVER.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getPort());
+    }
+
+    @BeforeEach
+    void clearSpans() {
+        SPANS.clear();
+    }
+
+    @Test
+    void serverCallContinuesIncomingTraceTest() {
+        SERVER.enqueue(json("[]"));
+
+        webTestClient.get().uri("/bookings/owner").header("X-Sharer-User-Id", "1")
+                .header("b3", TRACE_ID + "-" + CALLER_SPAN_ID + "-1")
+                .exchange()
+                .expectStatus().isOk();
+
+        RecordedRequest request = takeRequest();
+        MutableSpan client = clientSpan();
+        assertThat(client.traceId()).isEqualTo(TRACE_ID);
+        assertThat(client.remoteServiceName()).isEqualTo("shareit-server");
+        assertThat(client.tags()).containsEntry("http.method", "GET")
+                .containsEntry("http.path", "/bookings/owner")
+                .containsEntry("http.status_code", "200")
+                .containsEntry("X-Sharer-User-Id", "1");
+        // Шлюз продолжает span вызвавшего, а сервер получает дочерний span запроса к нему
+        assertThat(client.parentId()).isEqualTo(CALLER_SPAN_ID);
+        assertThat(request.getHeader("b3")).startsWith(TRACE_ID + "-" + client.id() + "-1");
+        assertThat(request.getHeader("X-Sharer-User-Id")).isEqualTo("1");
+    }
+
+    @Test
+    void serverCallWithoutIncomingTraceStartsNewTraceTest() {
+        SERVER.enqueue(json("{\"id\":1}"));
+
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"user\",\"email\":\"user@mail.ru\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        RecordedRequest request = takeRequest();
+        MutableSpan client = clientSpan();
+        assertThat(client.traceId()).isNotEqualTo(TRACE_ID);
+        assertThat(client.tags()).containsEntry("http.method", "POST")
+                .containsEntry("http.path", "/users");
+        assertThat(client.parentId()).isNotNull();
+        assertThat(request.getHeader("b3")).startsWith(client.traceId() + "-" + client.id() + "-1");
+    }
+
+    private MutableSpan clientSpan() {
+        return SPANS.spans().stream()
+                .filter(span -> span.kind() == Span.Kind.CLIENT)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body);
+    }
+
+    @SneakyThrows
+    private static RecordedRequest takeRequest() {
+        RecordedRequest request = SERVER.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(request).as("запрос к серверу").isNotNull();
+        return request;
+    }
+
+    // Как и выгрузка в файл, обработчик добавляется последним, после переноса baggage в теги
+    @TestConfiguration
+    static class InMemorySpans {
+        @Bean
+        TracingCustomizer inMemorySpans() {
+            return builder -> builder.addSpanHandler(SPANS);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Наполняет базу сервера напрямую через репозитории: API не даёт создать бронирования в прошлом,
+ * а без них пустеют выборки PAST/CURRENT и нельзя оставить отзыв.
+ * Половина пользователей - владельцы вещей, вторая половина - арендаторы.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DataSeeder {
+    public static final List<String> WORDS = List.of("дрель", "пила", "отвёртка", "молоток", "лестница",
+            "палатка", "велосипед", "гитара", "проектор", "самокат");
+    private static final List<String> ADJECTIVES = List.of("старая", "новая", "лёгкая", "мощная", "складная");
+    private static final int CHUNK = 1_000;
+    // Бронирования каждой вещи равномерно заполняют окно вокруг текущего момента и не пересекаются
+    private static final Duration BOOKING_WINDOW = Duration.ofDays(120);
+
+    private final ApplicationContext server;
+    private final LoadTestConfig config;
+
+    public SeededData seed() {
+        Random random = new Random(config.getSeed());
+
+        List<User> users = new ArrayList<>(config.getUsers());
+        for (int i = 1; i <= config.getUsers(); i++) {
+            users.add(new User(null, "user" + i, "user" + i + "@mail.ru"));
+        }
+        users = saveAll(UserRepository.class, users);
+        List<User> owners = users.subList(0, users.size() / 2);
+        List<User> bookers = users.subList(users.size() / 2, users.size());
+
+        List<Item> items = new ArrayList<>(config.getItems());
+        for (int i = 0; i < config.getItems(); i++) {
+            String word = WORDS.get(random.nextInt(WORDS.size()));
+            String adjective = ADJECTIVES.get(random.nextInt(ADJECTIVES.size()));
+            items.add(new Item(null, word, adjective + " " + word + " номер " + i, random.nextInt(10) != 0,
+                    owners.get(i % owners.size()), null));
+        }
+        items = saveAll(ItemRepository.class, items);
+
+        List<Booking> bookings = new ArrayList<>(config.getBookings());
+        LocalDateTime windowStart = LocalDateTime.now().minus(BOOKING_WINDOW.dividedBy(2));
+        for (int i = 0; i < items.size(); i++) {
+            int perItem = config.getBookings() / items.size() + (i < config.getBookings() % items.size() ? 1 : 0);
+            if (perItem == 0) {
+                continue;
+            }
+            Duration slot = BOOKING_WINDOW.dividedBy(perItem);
+            for (int j = 0; j < perItem; j++) {
+                LocalDateTime start = windowStart.plus(slot.multipliedBy(j));
+                bookings.add(new Booking(start, start.plus(slot.multipliedBy(3).dividedBy(4)), items.get(i),
+                        bookers.get(random.nextInt(bookers.size())), randomStatus(random)));
+            }
+        }
+        saveAll(BookingRepository.class, bookings);
+
+        List<Comment> comments = new ArrayList<>(config.getComments());
+        for (int i = 0; i < config.getComments(); i++) {
+            comments.add(new Comment(0, "Отзыв номер " + i, items.get(random.nextInt(items.size())),
+                    bookers.get(random.nextInt(bookers.size())), LocalDateTime.now().minusDays(random.nextInt(60))));
+        }
+        saveAll(CommentRepository.class, comments);
+
+        log.info("Создано пользователей: {}, вещей: {}, бронирований: {}, отзывов: {}",
+                users.size(), items.size(), bookings.size(), comments.size());
+        return new SeededData(ids(owners), ids(bookers));
+    }
+
+    private static BookingStatus randomStatus(Random random) {
+        int roll = random.nextInt(10);
+        if (roll < 7) {
+            return BookingStatus.APPROVED;
+        }
+        return roll < 9 ? BookingStatus.WAITING : BookingStatus.REJECTED;
+    }
+
+    // Порциями, чтобы контекст персистентности не разрастался на больших объёмах
+    private <T> List<T> saveAll(Class<? extends JpaRepository<T, Long>> repositoryType, List<T> entities) {
+        JpaRepository<T, Long> repository = server.getBean(repositoryType);
+        List<T> saved = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += CHUNK) {
+            saved.addAll(repository.saveAll(entities.subList(from, Math.min(from + CHUNK, entities.size()))));
+        }
+        return saved;
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).collect(Collectors.toList());
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class SeededData {
+        private final List<Long> ownerIds;
+        private final List<Long> bookerIds;
+    }
+}
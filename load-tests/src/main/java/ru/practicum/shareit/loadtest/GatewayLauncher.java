@@ -0,0 +1,87 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.boot.loader.LaunchedURLClassLoader;
+import org.springframework.boot.loader.archive.Archive;
+import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.boot.loader.jar.JarFile;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Запускает шлюз из его исполняемого jar в той же JVM, но в отдельном загрузчике классов:
+ * у шлюза и сервера есть классы с одинаковыми именами, на общем classpath они бы конфликтовали.
+ * Классы шлюза этому модулю не видны, поэтому с его контекстом работаем через рефлексию.
+ */
+public class GatewayLauncher implements AutoCloseable {
+    private static final String CLASSES = "BOOT-INF/classes/";
+    private static final String LIB = "BOOT-INF/lib/";
+
+    private final LaunchedURLClassLoader classLoader;
+    private final Object context;
+
+    private GatewayLauncher(LaunchedURLClassLoader classLoader, Object context) {
+        this.classLoader = classLoader;
+        this.context = context;
+    }
+
+    public static GatewayLauncher start(Path jar, String... args) throws Exception {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Не найден исполняемый jar шлюза: " + jar.toAbsolutePath()
+                    + ". Соберите его: mvn install -DskipTests");
+        }
+        JarFile.registerUrlProtocolHandler();
+        JarFileArchive archive = new JarFileArchive(jar.toFile());
+        List<URL> urls = new ArrayList<>();
+        Iterator<Archive> nested = archive.getNestedArchives(entry -> entry.getName().startsWith("BOOT-INF/"),
+                entry -> entry.isDirectory() ? entry.getName().equals(CLASSES) : entry.getName().startsWith(LIB));
+        while (nested.hasNext()) {
+            urls.add(nested.next().getUrl());
+        }
+        // Родитель - платформенный загрузчик: классы сервера и этого модуля шлюзу не видны
+        LaunchedURLClassLoader classLoader = new LaunchedURLClassLoader(urls.toArray(new URL[0]),
+                ClassLoader.getPlatformClassLoader());
+        String startClass = archive.getManifest().getMainAttributes().getValue("Start-Class");
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            // Фабрику обработчиков URL на всю JVM уже зарегистрировал Tomcat сервера, второй раз её не установить
+            invoke(classLoader.loadClass("org.apache.catalina.webresources.TomcatURLStreamHandlerFactory")
+                    .getMethod("disable"), null);
+            Class<?> application = classLoader.loadClass("org.springframework.boot.SpringApplication");
+            Object context = invoke(application.getMethod("run", Class.class, String[].class), null,
+                    classLoader.loadClass(startClass), args);
+            return new GatewayLauncher(classLoader, context);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    public int getPort() throws Exception {
+        Object environment = invoke(context.getClass().getMethod("getEnvironment"), context);
+        Method getProperty = environment.getClass().getMethod("getProperty", String.class);
+        return Integer.parseInt((String) invoke(getProperty, environment, "local.server.port"));
+    }
+
+    @Override
+    public void close() throws Exception {
+        invoke(context.getClass().getMethod("close"), context);
+        classLoader.close();
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) throws Exception {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+}
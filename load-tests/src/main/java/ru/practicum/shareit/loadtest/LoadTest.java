@@ -0,0 +1,68 @@
+package ru.practicum.shareit.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Нагрузочный прогон: сервер и шлюз поднимаются в этой JVM на случайных портах поверх H2 или встроенного PostgreSQL,
+ * база наполняется данными, затем через шлюз идёт смешанный трафик и печатаются p50/p99 и пропускная способность.
+ * Запуск: mvn install -DskipTests, затем mvn -pl load-tests exec:exec -Dloadtest.args="...".
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        log.info("Параметры прогона: {}", config);
+
+        EmbeddedPostgres postgres = config.getDb() == LoadTestConfig.Database.POSTGRES ? EmbeddedPostgres.start() : null;
+        try (ConfigurableApplicationContext server = startServer(postgres)) {
+            int serverPort = server.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            DataSeeder.SeededData data = new DataSeeder(server, config).seed();
+
+            try (GatewayLauncher gateway = GatewayLauncher.start(config.getGatewayJar(),
+                    "--server.port=0",
+                    "--shareit-server.url=http://localhost:" + serverPort,
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN",
+                    "--logging.level.org.springframework.web.client.RestTemplate=WARN")) {
+                String gatewayUrl = "http://localhost:" + gateway.getPort();
+                log.info("Сервер на порту {}, шлюз: {}", serverPort, gatewayUrl);
+
+                TrafficDriver.Result result = new TrafficDriver(config, data, gatewayUrl).run();
+                System.out.println();
+                System.out.println(config);
+                System.out.print(result.format());
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    // Аргументами командной строки, а не свойствами по умолчанию: иначе их перекроет application.properties сервера
+    private static ConfigurableApplicationContext startServer(EmbeddedPostgres postgres) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.properties.hibernate.format_sql=false"));
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItServer.class);
+        if (postgres == null) {
+            // Профиль ci: H2 в памяти со схемой без расширений PostgreSQL
+            builder.profiles("ci");
+        } else {
+            args.add("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres")
+                    + "&reWriteBatchedInserts=true");
+            args.add("--spring.datasource.username=postgres");
+            args.add("--spring.datasource.password=postgres");
+        }
+        return builder.run(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона из аргументов вида --ключ=значение. Одинаковые параметры и seed дают одинаковые данные и трафик.
+ */
+@Getter
+public class LoadTestConfig {
+    private Scenario scenario = Scenario.MIXED;
+    private Database db = Database.H2;
+    private int users = 500;
+    private int items = 5_000;
+    private int bookings = 50_000;
+    private int comments = 10_000;
+    private int threads = 16;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 30;
+    private long seed = 42;
+    private Path gatewayJar = Path.of(System.getProperty("shareit.gateway.jar",
+            "load-tests/target/gateway/shareit-gateway-exec.jar"));
+
+    public static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Ожидается аргумент вида --ключ=значение: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        // Сценарий задаёт значения по умолчанию, явные аргументы их перекрывают
+        String scenario = values.remove("scenario");
+        if (scenario != null) {
+            config.apply(Scenario.valueOf(scenario.toUpperCase().replace('-', '_')));
+        }
+        values.forEach(config::set);
+        if (config.users < 2 || config.items < 1 || config.threads < 1 || config.durationSeconds < 1) {
+            throw new IllegalArgumentException("Нужны минимум 2 пользователя, 1 вещь, 1 поток и 1 секунда замера.");
+        }
+        return config;
+    }
+
+    private void apply(Scenario scenario) {
+        this.scenario = scenario;
+        if (scenario == Scenario.HIGH_CONCURRENCY) {
+            threads = 5_000;
+            // Засчитываются только запросы, целиком попавшие в замер, а в очереди к Tomcat они ждут дольше обычного
+            warmupSeconds = 30;
+            durationSeconds = 60;
+        }
+    }
+
+    private void set(String key, String value) {
+        switch (key) {
+            case "db":
+                db = Database.valueOf(value.toUpperCase());
+                break;
+            case "users":
+                users = Integer.parseInt(value);
+                break;
+            case "items":
+                items = Integer.parseInt(value);
+                break;
+            case "bookings":
+                bookings = Integer.parseInt(value);
+                break;
+            case "comments":
+                comments = Integer.parseInt(value);
+                break;
+            case "threads":
+                threads = Integer.parseInt(value);
+                break;
+            case "warmup":
+                warmupSeconds = Integer.parseInt(value);
+                break;
+            case "duration":
+                durationSeconds = Integer.parseInt(value);
+                break;
+            case "seed":
+                seed = Long.parseLong(value);
+                break;
+            case "gateway-jar":
+                gatewayJar = Path.of(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный параметр: " + key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("scenario=%s, db=%s, users=%d, items=%d, bookings=%d, comments=%d, threads=%d, warmup=%ds, "
+                        + "duration=%ds, seed=%d",
+                scenario, db, users, items, bookings, comments, threads, warmupSeconds, durationSeconds, seed);
+    }
+
+    public enum Scenario {
+        // Смешанный трафик на 16 потоках
+        MIXED,
+        // Тот же трафик на 5000 одновременных соединениях: каждый поток держит своё соединение со шлюзом,
+        // и шлюз с сервером упираются в пул потоков Tomcat, а не в клиента
+        HIGH_CONCURRENCY
+    }
+
+    public enum Database {
+        // H2 в памяти, как в профиле ci
+        H2,
+        // Встроенный PostgreSQL 14 со всеми схемами сервера, включая полнотекстовый поиск
+        POSTGRES
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Смешанный трафик через шлюз: поиск, вещи владельца и выборки бронирований по каждому состоянию.
+ * Потоки работают в замкнутом цикле: следующий запрос уходит сразу после ответа на предыдущий.
+ * Во время прогрева запросы идут, но не учитываются.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TrafficDriver {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestConfig config;
+    private final DataSeeder.SeededData data;
+    private final String gatewayUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+
+    public Result run() throws Exception {
+        List<Endpoint> endpoints = endpoints();
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(config.getWarmupSeconds()).toNanos();
+        long measureTo = measureFrom + Duration.ofSeconds(config.getDurationSeconds()).toNanos();
+        log.info("Прогрев {} с, замер {} с, потоков: {}", config.getWarmupSeconds(), config.getDurationSeconds(),
+                config.getThreads());
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreads());
+        List<Future<Map<String, LatencyRecorder>>> futures = new ArrayList<>();
+        for (int worker = 0; worker < config.getThreads(); worker++) {
+            Random random = new Random(config.getSeed() + worker);
+            futures.add(executor.submit(() -> drive(endpoints, random, measureFrom, measureTo)));
+        }
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        endpoints.forEach(endpoint -> recorders.put(endpoint.name, new LatencyRecorder()));
+        for (Future<Map<String, LatencyRecorder>> future : futures) {
+            future.get().forEach((name, recorder) -> recorders.get(name).merge(recorder));
+        }
+        executor.shutdown();
+        return new Result(recorders, config.getDurationSeconds());
+    }
+
+    private Map<String, LatencyRecorder> drive(List<Endpoint> endpoints, Random random, long measureFrom, long measureTo)
+            throws InterruptedException {
+        int totalWeight = endpoints.stream().mapToInt(endpoint -> endpoint.weight).sum();
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        endpoints.forEach(endpoint -> recorders.put(endpoint.name, new LatencyRecorder()));
+        while (true) {
+            Endpoint endpoint = pick(endpoints, random.nextInt(totalWeight));
+            HttpRequest request = endpoint.request.apply(random, data);
+            long start = System.nanoTime();
+            if (start >= measureTo) {
+                return recorders;
+            }
+            boolean error;
+            try {
+                error = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+            } catch (IOException e) {
+                error = true;
+            }
+            long end = System.nanoTime();
+            if (start >= measureFrom && end <= measureTo) {
+                recorders.get(endpoint.name).record(end - start, error);
+            }
+        }
+    }
+
+    private static Endpoint pick(List<Endpoint> endpoints, int roll) {
+        for (Endpoint endpoint : endpoints) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Веса эндпоинтов посчитаны неверно");
+    }
+
+    // Веса примерно как у живого сервиса: поиск и списки бронирований заметно чаще остального
+    private List<Endpoint> endpoints() {
+        List<Endpoint> endpoints = new ArrayList<>();
+        endpoints.add(new Endpoint("GET /items/search", 20, (random, data) -> get(
+                "/items/search?text=" + URLEncoder.encode(DataSeeder.WORDS.get(random.nextInt(DataSeeder.WORDS.size())),
+                        StandardCharsets.UTF_8) + "&from=0&size=10",
+                null)));
+        endpoints.add(new Endpoint("GET /items", 20, (random, data) -> get("/items?from=0&size=10",
+                randomId(random, data.getOwnerIds()))));
+        for (BookingState state : BookingState.values()) {
+            endpoints.add(new Endpoint("GET /bookings?state=" + state, 5, (random, data) -> get(
+                    "/bookings?state=" + state + "&from=0&size=10", randomId(random, data.getBookerIds()))));
+            endpoints.add(new Endpoint("GET /bookings/owner?state=" + state, 5, (random, data) -> get(
+                    "/bookings/owner?state=" + state + "&from=0&size=10", randomId(random, data.getOwnerIds()))));
+        }
+        return endpoints;
+    }
+
+    private HttpRequest get(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(gatewayUrl + path)).timeout(TIMEOUT).GET();
+        if (userId != null) {
+            builder.header(USER_ID_HEADER, String.valueOf(userId));
+        }
+        return builder.build();
+    }
+
+    private static Long randomId(Random random, List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    @RequiredArgsConstructor
+    private static class Endpoint {
+        private final String name;
+        private final int weight;
+        private final BiFunction<Random, DataSeeder.SeededData, HttpRequest> request;
+    }
+
+    @RequiredArgsConstructor
+    public static class Result {
+        private final Map<String, LatencyRecorder> recorders;
+        private final int durationSeconds;
+
+        public String format() {
+            StringBuilder report = new StringBuilder(String.format("%-36s %9s %7s %9s %9s %9s%n",
+                    "Endpoint", "Requests", "Errors", "RPS", "p50 ms", "p99 ms"));
+            LatencyRecorder total = new LatencyRecorder();
+            recorders.forEach((name, recorder) -> {
+                report.append(row(name, recorder));
+                total.merge(recorder);
+            });
+            return report.append(row("TOTAL", total)).toString();
+        }
+
+        private String row(String name, LatencyRecorder recorder) {
+            return String.format("%-36s %9d %7d %9.1f %9.2f %9.2f%n", name, recorder.getCount(), recorder.getErrors(),
+                    (double) recorder.getCount() / durationSeconds, recorder.percentileMillis(50),
+                    recorder.percentileMillis(99));
+        }
+    }
+}
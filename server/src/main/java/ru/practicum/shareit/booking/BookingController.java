@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,9 +11,11 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingGetDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 
@@ -28,6 +31,12 @@ public class BookingController {
         return bookingService.createBooking(bookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestBody List<BookingDto> bookingDtos,
+                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.createBookings(bookingDtos, userId);
+    }
+
     @PatchMapping("{bookingId}")
     public BookingGetDto updateBookingStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @PathVariable Long bookingId,
@@ -41,19 +50,33 @@ public class BookingController {
     }
 
     @GetMapping()
-    public List<BookingGetDto> findAllBookingsByUser(@RequestParam(defaultValue = "0") int from,
-                                                     @RequestParam(defaultValue = "10") int size,
-                                                     @RequestHeader("X-Sharer-User-Id") Long userId,
-                                                     @RequestParam(value = "state", defaultValue = "ALL") String state) {
-        return bookingService.findAllBookingsByUser(from, size, userId, state);
+    public ResponseEntity<List<BookingGetDto>> findAllBookingsByUser(@RequestParam(defaultValue = "0") int from,
+                                                                     @RequestParam(defaultValue = "10") int size,
+                                                                     @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam(value = "state", defaultValue = "ALL") String state,
+                                                                     @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllBookingsByUser(from, size, userId, state));
+        }
+        return KeysetCursor.withNextCursor(bookingService.findAllBookingsByUser(KeysetCursor.decode(cursor), size, userId,
+                state), size, BookingController::cursorOf);
     }
 
 
     @GetMapping("/owner")
-    public List<BookingGetDto> findAllBookingsByOwner(@RequestParam(defaultValue = "0") int from,
-                                                      @RequestParam(defaultValue = "10") int size,
-                                                      @RequestHeader("X-Sharer-User-Id") Long userId,
-                                                      @RequestParam(value = "state", defaultValue = "ALL") String state) {
-        return bookingService.findAllBookingsByOwner(from, size, userId, state);
+    public ResponseEntity<List<BookingGetDto>> findAllBookingsByOwner(@RequestParam(defaultValue = "0") int from,
+                                                                      @RequestParam(defaultValue = "10") int size,
+                                                                      @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                      @RequestParam(value = "state", defaultValue = "ALL") String state,
+                                                                      @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllBookingsByOwner(from, size, userId, state));
+        }
+        return KeysetCursor.withNextCursor(bookingService.findAllBookingsByOwner(KeysetCursor.decode(cursor), size, userId,
+                state), size, BookingController::cursorOf);
+    }
+
+    private static KeysetCursor cursorOf(BookingGetDto booking) {
+        return new KeysetCursor(booking.getStart(), booking.getId());
     }
 }
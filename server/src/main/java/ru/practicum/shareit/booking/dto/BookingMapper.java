@@ -26,4 +26,12 @@ public class BookingMapper {
         }
         return null;
     }
+
+    public static BookingGetItemDto toBookingGetItemDto(BookingShortDto booking) {
+        if (booking != null) {
+            return new BookingGetItemDto(booking.getId(), booking.getBookerId(),
+                    booking.getStart(), booking.getEnd());
+        }
+        return null;
+    }
 }
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.exceptions;
+
+public class BookingLockTimeoutException extends RuntimeException {
+    public BookingLockTimeoutException(final String message) {
+        super(message);
+    }
+}
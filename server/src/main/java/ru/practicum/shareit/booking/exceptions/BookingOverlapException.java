@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.exceptions;
+
+public class BookingOverlapException extends RuntimeException {
+    public BookingOverlapException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,217 @@
+package ru.practicum.shareit.booking.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.exceptions.BookingLockTimeoutException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Подтверждённые бронирования вещей в памяти: пересечение интервалов проверяется без обращения к БД.
+ * Интервалы вещи загружаются из БД при подтверждении и меняются только после коммита; в памяти держатся
+ * не больше {@code shareit.booking.index.max-items} вещей, давно не запрашивавшиеся вытесняются.
+ * Подтверждение идёт под полосатой блокировкой: вещи делят фиксированный набор замков по id,
+ * замок держится до конца транзакции, поэтому проверка и запись статуса не разъезжаются.
+ * Замок берётся внутри транзакции, когда соединение с БД уже занято, поэтому ждать его можно только
+ * {@code shareit.booking.index.lock-timeout}, дальше запрос получает 409, а не держит соединение из пула.
+ * <p>
+ * Создание бронирования замок не берёт: новое бронирование ждёт подтверждения и правило о непересечении
+ * подтверждённых не нарушит, поэтому проверка при создании - только ранний отказ по уже сделанному снимку.
+ * <p>
+ * В памяти остаются только бронирования, которые ещё не закончились. Для интервала, начавшегося в прошлом,
+ * этого мало, и он проверяется по БД. Отсутствие пересечения в памяти для будущих интервалов в БД
+ * не перепроверяется. Это верно, пока все подтверждения идут через один экземпляр сервера. При нескольких
+ * экземплярах или правке bookings в обход сервиса индекс может пропустить пересечение: в PostgreSQL его
+ * всё равно отклонит ограничение bookings_approved_no_overlap при подтверждении, а в H2 (тесты) такой защиты нет.
+ */
+@Component
+public class BookingIntervalIndex {
+    private static final int STRIPES = 64;
+    private static final Comparator<Interval> BY_START = Comparator.comparing(Interval::getStart)
+            .thenComparingLong(Interval::getBookingId);
+
+    private final BookingRepository bookingRepository;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final Cache<Long, ItemIntervals> items;
+    private final Duration lockTimeout;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.index.max-items:10000}") long maxItems,
+                                @Value("${shareit.booking.index.expire-after-access:30m}") Duration expireAfterAccess,
+                                @Value("${shareit.booking.index.lock-timeout:2s}") Duration lockTimeout) {
+        this.bookingRepository = bookingRepository;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+        this.lockTimeout = lockTimeout;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public void lock(long itemId) {
+        lock(locks[stripe(itemId)]);
+    }
+
+    // Вызывается под замком вещи. Совпадение из памяти перепроверяется в БД: данные могли измениться в обход индекса
+    public boolean overlaps(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (startedBeforeNow(start)) {
+            return existsApprovedOverlap(itemId, bookingId, start, end);
+        }
+        if (!intervals(itemId).overlaps(bookingId, start, end)) {
+            return false;
+        }
+        if (existsApprovedOverlap(itemId, bookingId, start, end)) {
+            return true;
+        }
+        items.put(itemId, load(itemId));
+        return false;
+    }
+
+    // Ранний отказ при создании бронирования, без замка. Индекс здесь только читается: загруженный без замка
+    // снимок мог бы затереть интервал, добавленный параллельным подтверждением
+    public boolean overlapsWithoutLock(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = items.getIfPresent(itemId);
+        if (intervals != null && !startedBeforeNow(start) && !intervals.overlaps(0L, start, end)) {
+            return false;
+        }
+        return existsApprovedOverlap(itemId, 0L, start, end);
+    }
+
+    // Тоже вызывается под замком вещи: индекс меняется после коммита, до снятия замка.
+    // Подтверждённое бронирование больше не меняет статус, поэтому удалять интервалы не требуется
+    public void add(Booking booking) {
+        afterCommit(() -> intervals(booking.getItem().getId()).add(Interval.of(booking)));
+    }
+
+    private ItemIntervals intervals(long itemId) {
+        ItemIntervals intervals = items.getIfPresent(itemId);
+        if (intervals == null) {
+            intervals = load(itemId);
+            items.put(itemId, intervals);
+        }
+        return intervals;
+    }
+
+    private boolean existsApprovedOverlap(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.existsByItemIdAndStatusAndIdNotAndStartBeforeAndEndAfter(itemId,
+                BookingStatus.APPROVED, bookingId, end, start);
+    }
+
+    private ItemIntervals load(long itemId) {
+        ItemIntervals intervals = new ItemIntervals();
+        bookingRepository.findAllByItemIdAndStatusAndEndAfter(itemId, BookingStatus.APPROVED, LocalDateTime.now())
+                .forEach(booking -> intervals.add(Interval.of(booking)));
+        return intervals;
+    }
+
+    private void lock(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(lockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new BookingLockTimeoutException("Вещь сейчас бронируется другим запросом, повторите позже.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingLockTimeoutException("Вещь сейчас бронируется другим запросом, повторите позже.");
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } else {
+            // Вне транзакции (например, в модульных тестах) держать замок не до чего
+            lock.unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Закончившиеся бронирования из памяти удалены, а с интервалом из прошлого они могут пересекаться
+    private static boolean startedBeforeNow(LocalDateTime start) {
+        return start.isBefore(LocalDateTime.now());
+    }
+
+    private static int stripe(long itemId) {
+        int hash = Long.hashCode(itemId);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    // Читается и без замка вещи (overlapsWithoutLock), поэтому методы синхронизированы на самом наборе
+    private static final class ItemIntervals {
+        private final NavigableSet<Interval> byStart = new TreeSet<>(BY_START);
+        // Самый длинный интервал ограничивает, насколько раньше начала может стартовать пересекающееся бронирование
+        private Duration maxLength = Duration.ZERO;
+
+        private synchronized boolean overlaps(long bookingId, LocalDateTime start, LocalDateTime end) {
+            pruneFinished();
+            Interval from = new Interval(Long.MIN_VALUE, start.minus(maxLength), start.minus(maxLength));
+            Interval to = new Interval(Long.MIN_VALUE, end, end);
+            for (Interval interval : byStart.subSet(from, false, to, false)) {
+                if (interval.getBookingId() != bookingId && interval.getEnd().isAfter(start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized void add(Interval interval) {
+            byStart.add(interval);
+            Duration length = Duration.between(interval.getStart(), interval.getEnd());
+            if (length.compareTo(maxLength) > 0) {
+                maxLength = length;
+            }
+        }
+
+        // Завершившиеся бронирования не пересекаются с будущими, держать их в памяти незачем.
+        // Интервалы, начавшиеся раньше текущего момента, сюда не попадают: они проверяются по БД
+        private void pruneFinished() {
+            LocalDateTime finishedBefore = LocalDateTime.now().minus(maxLength);
+            Iterator<Interval> iterator = byStart.iterator();
+            while (iterator.hasNext() && iterator.next().getStart().isBefore(finishedBefore)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class Interval {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private static Interval of(Booking booking) {
+            return new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+    }
+}
@@ -1,55 +1,154 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingGetItemDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b where b.item.owner.id = ?1 order by b.start desc")
     List<Booking> findAllBookingsByOwner(Long userId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b where b.booker.id = ?1 and b.start < ?2 and b.end > ?2 order by b.start desc")
     List<Booking> findByBookerIdCurrent(Long userId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b where b.item.owner.id = ?1 and b.start < ?2 and b.end > ?2 order by b.start desc")
     List<Booking> findBookingsByItemOwnerCurrent(Long userId, LocalDateTime now);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b where b.item.owner.id = ?1 and b.start < ?2 and b.end > ?2 order by b.start desc")
     List<Booking> findBookingsByItemOwnerCurrent(Long userId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b where b.booker.id = ?1 and b.end < ?2 order by b.start desc")
     List<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b where b.booker.id = ?1 and b.start > ?2 order by b.start desc")
     List<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b where b.booker.id = ?1 and b.status = ?2 order by b.start desc")
     List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b where b.item.owner.id = ?1 and b.status = ?2 order by b.start desc")
     List<Booking> findBookingByItemOwnerAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b where b.item.owner.id = ?1 and b.end < ?2 order by b.start desc")
     List<Booking> findBookingByItemOwnerAndEndIsBefore(Long itemOwner, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b where b.item.owner.id = ?1 and b.start > ?2  order by b.start desc")
     List<Booking> findBookingByItemOwnerAndStartIsAfter(Long ownerId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking as b where b.item.id = ?1 and b.end < ?2 and b.status<>?3 order by b.start desc")
-    List<Booking> findBookingByItemIdAndEndBefore(Long itemId, LocalDateTime now, BookingStatus status);
-
-    @Query("select b from Booking as b where b.item.id = ?1 and b.start > ?2  and b.status<>?3 order by b.start desc")
-    List<Booking> findBookingByItemIdAndStartAfter(Long itemId, LocalDateTime now, BookingStatus status);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b where b.booker.id = ?1 and " +
+            "(b.start < ?2 or (b.start = ?2 and b.id < ?3)) order by b.start desc, b.id desc")
+    List<Booking> findByBookerIdSeek(Long bookerId, LocalDateTime start, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.start < ?2 and b.end > ?2 and " +
+            "(b.start < ?3 or (b.start = ?3 and b.id < ?4)) order by b.start desc, b.id desc")
+    List<Booking> findByBookerIdCurrentSeek(Long bookerId, LocalDateTime now, LocalDateTime start, Long id,
+                                            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.end < ?2 and " +
+            "(b.start < ?3 or (b.start = ?3 and b.id < ?4)) order by b.start desc, b.id desc")
+    List<Booking> findByBookerIdPastSeek(Long bookerId, LocalDateTime now, LocalDateTime start, Long id,
+                                         Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.start > ?2 and " +
+            "(b.start < ?3 or (b.start = ?3 and b.id < ?4)) order by b.start desc, b.id desc")
+    List<Booking> findByBookerIdFutureSeek(Long bookerId, LocalDateTime now, LocalDateTime start, Long id,
+                                           Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.status = ?2 and " +
+            "(b.start < ?3 or (b.start = ?3 and b.id < ?4)) order by b.start desc, b.id desc")
+    List<Booking> findByBookerIdAndStatusSeek(Long bookerId, BookingStatus status, LocalDateTime start, Long id,
+                                              Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b where b.item.owner.id = ?1 and " +
+            "(b.start < ?2 or (b.start = ?2 and b.id < ?3)) order by b.start desc, b.id desc")
+    List<Booking> findAllBookingsByOwnerSeek(Long ownerId, LocalDateTime start, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b where b.item.owner.id = ?1 and b.start < ?2 and b.end > ?2 and " +
+            "(b.start < ?3 or (b.start = ?3 and b.id < ?4)) order by b.start desc, b.id desc")
+    List<Booking> findBookingsByItemOwnerCurrentSeek(Long ownerId, LocalDateTime now, LocalDateTime start, Long id,
+                                                     Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b where b.item.owner.id = ?1 and b.end < ?2 and " +
+            "(b.start < ?3 or (b.start = ?3 and b.id < ?4)) order by b.start desc, b.id desc")
+    List<Booking> findBookingByItemOwnerPastSeek(Long ownerId, LocalDateTime now, LocalDateTime start, Long id,
+                                                 Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b where b.item.owner.id = ?1 and b.start > ?2 and " +
+            "(b.start < ?3 or (b.start = ?3 and b.id < ?4)) order by b.start desc, b.id desc")
+    List<Booking> findBookingByItemOwnerFutureSeek(Long ownerId, LocalDateTime now, LocalDateTime start, Long id,
+                                                   Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b where b.item.owner.id = ?1 and b.status = ?2 and " +
+            "(b.start < ?3 or (b.start = ?3 and b.id < ?4)) order by b.start desc, b.id desc")
+    List<Booking> findBookingByItemOwnerAndStatusSeek(Long ownerId, BookingStatus status, LocalDateTime start, Long id,
+                                                      Pageable pageable);
+
+    // Самое позднее завершённое бронирование, а если завершённых нет - текущее
+    @Query("select new ru.practicum.shareit.booking.dto.BookingGetItemDto(b.id, b.booker.id, b.start, b.end) " +
+            "from Booking as b where b.item.id = ?1 and b.start < ?2 and b.status <> ?3 " +
+            "order by case when b.end < ?2 then 0 else 1 end, b.start desc")
+    List<BookingGetItemDto> findLastBookingByItemId(Long itemId, LocalDateTime now, BookingStatus status, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingGetItemDto(b.id, b.booker.id, b.start, b.end) " +
+            "from Booking as b where b.item.id = ?1 and b.start > ?2 and b.status <> ?3 order by b.start asc")
+    List<BookingGetItemDto> findNextBookingByItemId(Long itemId, LocalDateTime now, BookingStatus status, Pageable pageable);
+
+    // Последнее - самое позднее завершённое бронирование, текущее берётся, только если завершённых нет
+    @Query(value = "select b.item_id as itemId, b.id as id, b.booker_id as bookerId, b.start_date as \"start\", " +
+            "b.end_date as \"end\", b.is_last as last " +
+            "from (select bk.*, bk.start_date < ?2 as is_last, row_number() over (" +
+            "partition by bk.item_id, bk.start_date < ?2 " +
+            "order by case when bk.start_date < ?2 and bk.end_date >= ?2 then 1 else 0 end, " +
+            "case when bk.start_date < ?2 then bk.start_date end desc, bk.start_date, bk.id) as rn " +
+            "from bookings as bk where bk.item_id in ?1 and bk.status <> 'REJECTED') as b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<BookingShortDto> findLastAndNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
 
     boolean existsBookingByItemAndBookerAndStatusNotAndStartBefore(Item item, User booker, BookingStatus status, LocalDateTime time);
 
+    // Один условный UPDATE вместо чтения и записи: из одновременных решений по бронированию проходит только одно
+    @Modifying
+    @Query("update Booking b set b.status = ?3, b.version = b.version + 1 where b.id = ?1 and b.status = ?2")
+    int updateStatus(Long bookingId, BookingStatus expected, BookingStatus status);
+
+    boolean existsByItemIdAndStatusAndIdNotAndStartBeforeAndEndAfter(Long itemId, BookingStatus status, Long bookingId,
+                                                                     LocalDateTime end, LocalDateTime start);
+
+    List<Booking> findAllByItemIdAndStatusAndEndAfter(Long itemId, BookingStatus status, LocalDateTime time);
+
 }
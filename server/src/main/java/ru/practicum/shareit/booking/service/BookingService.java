@@ -1,13 +1,17 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingGetDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 
 public interface BookingService {
     BookingGetDto createBooking(BookingDto bookingDto, Long userId);
 
+    List<BookingBatchResultDto> createBookings(List<BookingDto> bookingDtos, Long userId);
+
     BookingGetDto updateBookingStatus(Long bookingId, Long userId, boolean approved);
 
     BookingGetDto findBookingById(long bookingId, long userId);
@@ -15,4 +19,8 @@ public interface BookingService {
     List<BookingGetDto> findAllBookingsByUser(int from, int size, Long userId, String state);
 
     List<BookingGetDto> findAllBookingsByOwner(int from, int size, Long userId, String state);
+
+    List<BookingGetDto> findAllBookingsByUser(KeysetCursor cursor, int size, Long userId, String state);
+
+    List<BookingGetDto> findAllBookingsByOwner(KeysetCursor cursor, int size, Long userId, String state);
 }
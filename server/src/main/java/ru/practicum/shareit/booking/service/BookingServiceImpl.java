@@ -1,10 +1,13 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingGetDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
@@ -12,10 +15,13 @@ import ru.practicum.shareit.booking.exceptions.*;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingIntervalIndex;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.exceptions.RequestValidateException;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
@@ -24,33 +30,79 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
 
     @Override
     @Transactional
     public BookingGetDto createBooking(BookingDto bookingDto, Long userId) {
         User user = checkUser(userId);
         Item item = checkItem(bookingDto.getItemId());
-        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+        validateBooking(bookingDto, item, userId);
+        Booking booking = BookingMapper.toBooking(bookingDto, item, user);
+        return BookingMapper.toBookingGetDto(bookingRepository.save(booking));
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(List<BookingDto> bookingDtos, Long userId) {
+        if (bookingDtos == null || bookingDtos.isEmpty() || bookingDtos.size() > MAX_BATCH_SIZE) {
             throw new BookingCreateException("Ошибка создания бронирования.");
         }
-        if (item.getOwner().getId().equals(userId)) {
-            throw new UserBookOwnItemException("Пользователь является владельцем вещи.");
+        User user = checkUser(userId);
+        Set<Long> itemIds = bookingDtos.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtos.size()];
+        List<Booking> bookings = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            try {
+                // null в списке - ошибка только этой позиции, остальные бронирования создаются
+                if (bookingDto == null) {
+                    throw new BookingCreateException("Ошибка создания бронирования.");
+                }
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new ItemNotFoundException("Вещь не найдена.");
+                }
+                validateBooking(bookingDto, item, userId);
+                bookings.add(BookingMapper.toBooking(bookingDto, item, user));
+                positions.add(i);
+            } catch (ItemNotFoundException | UserBookOwnItemException | BookingCreateException
+                     | BookingOverlapException e) {
+                results[i] = new BookingBatchResultDto(i, null, e.getMessage());
+            }
         }
-        if (!item.getAvailable() || bookingDto.getStart().isAfter(bookingDto.getEnd())
-                || bookingDto.getStart().equals(bookingDto.getEnd())) {
-            throw new BookingCreateException("Ошибка создания бронирования.");
+        // Вставки уходят в БД пачками по hibernate.jdbc.batch_size
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        for (int i = 0; i < saved.size(); i++) {
+            int position = positions.get(i);
+            results[position] = new BookingBatchResultDto(position, BookingMapper.toBookingGetDto(saved.get(i)), null);
         }
-        Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        return BookingMapper.toBookingGetDto(bookingRepository.save(booking));
+        return Arrays.asList(results);
     }
 
     @Override
@@ -63,19 +115,29 @@ public class BookingServiceImpl implements BookingService {
             throw new UserBookOwnItemException("Пользователь является владельцем вещи.");
         }
         BookingStatus status = Boolean.TRUE.equals(approved) ? BookingStatus.APPROVED : BookingStatus.REJECTED;
-        boolean trueStatus = booking.getStatus().equals(status);
-
-        if (trueStatus) {
+        if (booking.getStatus() != BookingStatus.WAITING) {
             throw new BookingStatusUpdateException("Ошибка изменения статуса бронирования.");
         }
-        booking.setStatus(status);
-        return BookingMapper.toBookingGetDto(bookingRepository.save(booking));
+        if (status == BookingStatus.APPROVED) {
+            bookingIntervalIndex.lock(item.getId());
+            checkOverlap(item.getId(), booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        if (updateStatus(booking.getId(), status) == 0) {
+            throw new BookingStatusConflictException("Статус бронирования уже изменён другим запросом.");
+        }
+        if (status == BookingStatus.APPROVED) {
+            bookingIntervalIndex.add(booking);
+        }
+        // Сущность в контексте не меняется, иначе Hibernate повторил бы запись со старой версией
+        BookingGetDto bookingGetDto = BookingMapper.toBookingGetDto(booking);
+        bookingGetDto.setStatus(status);
+        return bookingGetDto;
     }
 
     @Override
     @Transactional
     public BookingGetDto findBookingById(long bookingId, long userId) {
-        checkUser(userId);
+        checkUserExists(userId);
         Booking booking = checkBooking(bookingId);
         Long itemOwner = booking.getItem().getOwner().getId();
         Long bookingOwner = booking.getBooker().getId();
@@ -90,13 +152,8 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public List<BookingGetDto> findAllBookingsByUser(int from, int size, Long userId, String state) {
-        checkUser(userId);
-        BookingState bookingState;
-        try {
-            bookingState = BookingState.valueOf(BookingState.class, state);
-        } catch (Exception e) {
-            throw new BookingStateException(state);
-        }
+        checkUserExists(userId);
+        BookingState bookingState = toBookingState(state);
         return filterByBookingStateForUser(bookingState, userId, pagination(from, size))
                 .stream().map(BookingMapper::toBookingGetDto).collect(Collectors.toList());
     }
@@ -104,20 +161,36 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public List<BookingGetDto> findAllBookingsByOwner(int from, int size, Long userId, String state) {
-        checkUser(userId);
-        BookingState bookingState;
-        try {
-            bookingState = BookingState.valueOf(BookingState.class, state);
-        } catch (IllegalArgumentException e) {
-            throw new BookingStateException(state);
-        }
-        if (itemRepository.findAllByOwnerId(userId).isEmpty()) {
+        checkUserExists(userId);
+        BookingState bookingState = toBookingState(state);
+        if (!itemRepository.existsByOwnerId(userId)) {
             throw new ItemNotFoundException("Вещей не найдено.");
         }
         return filterByBookingStateForOwner(bookingState, userId, pagination(from, size))
                 .stream().map(BookingMapper::toBookingGetDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional
+    public List<BookingGetDto> findAllBookingsByUser(KeysetCursor cursor, int size, Long userId, String state) {
+        checkUserExists(userId);
+        BookingState bookingState = toBookingState(state);
+        return seekByBookingStateForUser(bookingState, userId, cursor, seekPagination(size))
+                .stream().map(BookingMapper::toBookingGetDto).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public List<BookingGetDto> findAllBookingsByOwner(KeysetCursor cursor, int size, Long userId, String state) {
+        checkUserExists(userId);
+        BookingState bookingState = toBookingState(state);
+        if (!itemRepository.existsByOwnerId(userId)) {
+            throw new ItemNotFoundException("Вещей не найдено.");
+        }
+        return seekByBookingStateForOwner(bookingState, userId, cursor, seekPagination(size))
+                .stream().map(BookingMapper::toBookingGetDto).collect(Collectors.toList());
+    }
+
     private List<Booking> filterByBookingStateForOwner(BookingState bookingState, Long userId, Pageable pageable) {
         List<Booking> bookingList = new ArrayList<>();
         switch (bookingState) {
@@ -168,6 +241,77 @@ public class BookingServiceImpl implements BookingService {
         return bookingList;
     }
 
+    private List<Booking> seekByBookingStateForOwner(BookingState bookingState, Long userId, KeysetCursor cursor,
+                                                     Pageable pageable) {
+        LocalDateTime start = cursor.getTime();
+        Long id = cursor.getId();
+        List<Booking> bookingList = new ArrayList<>();
+        switch (bookingState) {
+            case ALL:
+                bookingList = bookingRepository.findAllBookingsByOwnerSeek(userId, start, id, pageable);
+                break;
+            case PAST:
+                bookingList = bookingRepository.findBookingByItemOwnerPastSeek(userId, LocalDateTime.now(), start, id, pageable);
+                break;
+            case FUTURE:
+                bookingList = bookingRepository.findBookingByItemOwnerFutureSeek(userId, LocalDateTime.now(), start, id, pageable);
+                break;
+            case CURRENT:
+                bookingList = bookingRepository.findBookingsByItemOwnerCurrentSeek(userId, LocalDateTime.now(), start, id, pageable);
+                break;
+            case WAITING:
+                bookingList = bookingRepository.findBookingByItemOwnerAndStatusSeek(userId, BookingStatus.WAITING, start, id, pageable);
+                break;
+            case REJECTED:
+                bookingList = bookingRepository.findBookingByItemOwnerAndStatusSeek(userId, BookingStatus.REJECTED, start, id, pageable);
+                break;
+        }
+        return bookingList;
+    }
+
+    private List<Booking> seekByBookingStateForUser(BookingState bookingState, Long userId, KeysetCursor cursor,
+                                                    Pageable pageable) {
+        LocalDateTime start = cursor.getTime();
+        Long id = cursor.getId();
+        List<Booking> bookingList = new ArrayList<>();
+        switch (bookingState) {
+            case ALL:
+                bookingList = bookingRepository.findByBookerIdSeek(userId, start, id, pageable);
+                break;
+            case PAST:
+                bookingList = bookingRepository.findByBookerIdPastSeek(userId, LocalDateTime.now(), start, id, pageable);
+                break;
+            case FUTURE:
+                bookingList = bookingRepository.findByBookerIdFutureSeek(userId, LocalDateTime.now(), start, id, pageable);
+                break;
+            case CURRENT:
+                bookingList = bookingRepository.findByBookerIdCurrentSeek(userId, LocalDateTime.now(), start, id, pageable);
+                break;
+            case WAITING:
+                bookingList = bookingRepository.findByBookerIdAndStatusSeek(userId, BookingStatus.WAITING, start, id, pageable);
+                break;
+            case REJECTED:
+                bookingList = bookingRepository.findByBookerIdAndStatusSeek(userId, BookingStatus.REJECTED, start, id, pageable);
+                break;
+        }
+        return bookingList;
+    }
+
+    private BookingState toBookingState(String state) {
+        try {
+            return BookingState.valueOf(BookingState.class, state);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BookingStateException(state);
+        }
+    }
+
+    private Pageable seekPagination(int size) {
+        if (size <= 0) {
+            throw new RequestValidateException("Ошибка пагинации.");
+        }
+        return PageRequest.of(0, size);
+    }
+
     private Pageable pagination(int from, int size) {
         if (from < 0 || size <= 0) {
             throw new RequestValidateException("Ошибка пагинации.");
@@ -175,10 +319,48 @@ public class BookingServiceImpl implements BookingService {
         return PageRequest.of(from == 0 ? 0 : (from / size), size, Sort.by(Sort.Direction.DESC, "start"));
     }
 
+    private void validateBooking(BookingDto bookingDto, Item item, Long userId) {
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+            throw new BookingCreateException("Ошибка создания бронирования.");
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            throw new UserBookOwnItemException("Пользователь является владельцем вещи.");
+        }
+        if (!item.getAvailable() || bookingDto.getStart().isAfter(bookingDto.getEnd())
+                || bookingDto.getStart().equals(bookingDto.getEnd())) {
+            throw new BookingCreateException("Ошибка создания бронирования.");
+        }
+        // Замок не нужен: бронирование создаётся в статусе WAITING, пересечение окончательно проверяется при подтверждении
+        if (bookingIntervalIndex.overlapsWithoutLock(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new BookingOverlapException("Вещь уже забронирована на это время.");
+        }
+    }
+
+    private void checkOverlap(Long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (bookingIntervalIndex.overlaps(itemId, bookingId, start, end)) {
+            throw new BookingOverlapException("Вещь уже забронирована на это время.");
+        }
+    }
+
+    // В PostgreSQL пересечение подтверждённых бронирований дополнительно запрещает ограничение bookings_approved_no_overlap
+    private int updateStatus(long bookingId, BookingStatus status) {
+        try {
+            return bookingRepository.updateStatus(bookingId, BookingStatus.WAITING, status);
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingOverlapException("Вещь уже забронирована на это время.");
+        }
+    }
+
     private User checkUser(Long userId) {
         return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден."));
     }
 
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь не найден.");
+        }
+    }
+
     private Item checkItem(Long itemId) {
         return itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Вещь не найдена."));
     }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Сильный ETag по телу ответа: gateway переспрашивает ресурс с If-None-Match и при 304 отдаёт свою копию.
+ * ETag считается по уже готовому ответу, поэтому контроллер, запросы к базе и сериализация выполняются
+ * и при 304 - экономится только передача тела в gateway, а не работа сервера.
+ */
+@Component
+public class EtagFilter extends ShallowEtagHeaderFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !(path.startsWith("/items") || path.startsWith("/requests") || path.startsWith("/users"));
+    }
+}
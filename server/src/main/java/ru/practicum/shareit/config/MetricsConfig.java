@@ -0,0 +1,34 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики сервера, доступны на /actuator/metrics и /actuator/prometheus:
+ * время каждого метода сервисов (помеченных @Timed) и число SQL-запросов и загрузок сущностей на HTTP-запрос.
+ */
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "shareit.service";
+    public static final String REQUEST_STATEMENTS = "shareit.request.jdbc.statements";
+    public static final String REQUEST_ENTITY_LOADS = "shareit.request.entity.loads";
+
+    // Теги class и method добавляет сам аспект
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        QueryCounter queryCounter = new QueryCounter();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCounter);
+            properties.put(AvailableSettings.INTERCEPTOR, queryCounter);
+        };
+    }
+}
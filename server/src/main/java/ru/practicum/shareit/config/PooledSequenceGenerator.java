@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Генератор id из последовательности БД, выдающий значения блоками: один nextval даёт
+ * {@code shareit.id.allocation-size} идентификаторов, поэтому Hibernate может отправлять вставки пачками.
+ * Шаг последовательности в schema.sql должен совпадать с размером блока.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    public static final String ALLOCATION_SIZE = "shareit.id.allocation-size";
+    public static final String STRATEGY = "ru.practicum.shareit.config.PooledSequenceGenerator";
+    private static final String DEFAULT_ALLOCATION_SIZE = "50";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Object allocationSize = serviceRegistry.getService(ConfigurationService.class).getSettings().get(ALLOCATION_SIZE);
+        params.setProperty(INCREMENT_PARAM, allocationSize != null ? allocationSize.toString() : DEFAULT_ALLOCATION_SIZE);
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * Счётчики SQL-запросов и загруженных сущностей текущего HTTP-запроса.
+ * Экземпляр один на всю фабрику сессий Hibernate, поэтому счёт ведётся в ThreadLocal и только между start() и stop():
+ * запросы вне HTTP (инициализация, фоновые задачи) не учитываются.
+ */
+public class QueryCounter extends EmptyInterceptor implements StatementInspector {
+    private static final ThreadLocal<Counts> COUNTS = new ThreadLocal<>();
+
+    public static void start() {
+        COUNTS.set(new Counts());
+    }
+
+    public static Counts stop() {
+        Counts counts = COUNTS.get();
+        COUNTS.remove();
+        return counts;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+        return false;
+    }
+
+    public static class Counts {
+        private long statements;
+        private long entityLoads;
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getEntityLoads() {
+            return entityLoads;
+        }
+    }
+}
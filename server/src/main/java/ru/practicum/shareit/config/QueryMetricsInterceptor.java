@@ -0,0 +1,46 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Сколько SQL-запросов и загрузок сущностей ушло на один HTTP-запрос: рост среднего по эндпоинту выдаёт N+1
+@RequiredArgsConstructor
+public class QueryMetricsInterceptor implements HandlerInterceptor {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.start();
+        return true;
+    }
+
+    // Вызывается после сериализации ответа, так что ленивые загрузки при формировании JSON тоже учтены
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        QueryCounter.Counts counts = QueryCounter.stop();
+        if (counts == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        summary(MetricsConfig.REQUEST_STATEMENTS, "Число SQL-запросов на HTTP-запрос", request.getMethod(), uri)
+                .record(counts.getStatements());
+        summary(MetricsConfig.REQUEST_ENTITY_LOADS, "Число загруженных сущностей на HTTP-запрос", request.getMethod(), uri)
+                .record(counts.getEntityLoads());
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.handler;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -14,6 +15,7 @@ import lombok.Generated;
 import ru.practicum.shareit.booking.exceptions.*;
 import ru.practicum.shareit.item.exceptions.CommentException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.item.exceptions.ItemValidateException;
 import ru.practicum.shareit.item.exceptions.OwnerItemException;
 import ru.practicum.shareit.request.exceptions.RequestNotFoundException;
 import ru.practicum.shareit.request.exceptions.RequestValidateException;
@@ -91,6 +93,24 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
         return new ErrorResponse("Ошибка бронирования 400: ", e.getMessage());
     }
 
+    @ExceptionHandler(BookingOverlapException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingOverlapException(BookingOverlapException e) {
+        return new ErrorResponse("Ошибка бронирования 409: ", e.getMessage());
+    }
+
+    @ExceptionHandler(BookingLockTimeoutException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingLockTimeoutException(BookingLockTimeoutException e) {
+        return new ErrorResponse("Ошибка бронирования 409: ", e.getMessage());
+    }
+
+    @ExceptionHandler(BookingStatusConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingStatusConflictException(BookingStatusConflictException e) {
+        return new ErrorResponse("Ошибка бронирования 409: ", e.getMessage());
+    }
+
     @ExceptionHandler(CommentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleCommentException(CommentException e) {
@@ -108,4 +128,17 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
     public ErrorResponse handleRequestValidateException(RequestValidateException e) {
         return new ErrorResponse(e.getMessage());
     }
+
+    @ExceptionHandler(ItemValidateException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleItemValidateException(ItemValidateException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleJsonException(JsonProcessingException e) {
+        log.debug("Ошибка разбора JSON {}", e.getMessage());
+        return new ErrorResponse("Ошибка разбора JSON", e.getMessage());
+    }
 }
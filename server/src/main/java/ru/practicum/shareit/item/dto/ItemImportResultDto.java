@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ItemImportResultDto {
+    private long imported;
+    private long failed;
+    // Только первые ошибки, чтобы ответ не рос вместе с размером загрузки
+    private List<ItemImportErrorDto> errors = new ArrayList<>();
+}
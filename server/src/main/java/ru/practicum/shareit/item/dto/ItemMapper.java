@@ -1,8 +1,7 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.experimental.UtilityClass;
-import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingGetItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -31,14 +30,15 @@ public class ItemMapper {
                 .build();
     }
 
-    public static ItemDto toItemDtoWithBookingAndComments(Item item, Booking lastBooking, Booking nextBooking, List<CommentDto> comments) {
+    public static ItemDto toItemDtoWithBookingAndComments(Item item, BookingGetItemDto lastBooking,
+                                                          BookingGetItemDto nextBooking, List<CommentDto> comments) {
         return ItemDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .lastBooking(BookingMapper.toBookingGetItemDto(lastBooking))
-                .nextBooking(BookingMapper.toBookingGetItemDto(nextBooking))
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
                 .comments(comments)
                 .requestId(item.getItemRequest() != null ? item.getItemRequest().getId() : null)
                 .build();
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.exceptions;
+
+public class ItemValidateException extends RuntimeException {
+    public ItemValidateException(final String message) {
+        super(message);
+    }
+}
@@ -13,14 +13,26 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findAllByOwnerId(Long userId);
 
+    boolean existsByOwnerId(Long userId);
+
     @Query("select i from Item as i where i.available=true and (lower(i.name) like lower(concat('%', ?1,'%')) " +
-            "or lower(i.description) like lower(concat('%',?1,'%')))")
+            "or lower(i.description) like lower(concat('%',?1,'%'))) " +
+            "order by case when lower(i.name) like lower(concat('%', ?1,'%')) then 0 else 1 end, i.id")
     List<Item> searchItemsByText(String text, PageRequest pageRequest);
 
+    @Query(value = "select * from items as i where i.is_available = true " +
+            "and to_tsvector('simple', i.name || ' ' || i.description) @@ to_tsquery('simple', ?1) " +
+            "order by ts_rank(to_tsvector('simple', i.name || ' ' || i.description), to_tsquery('simple', ?1)) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchItemsByFullText(String query, Pageable pageable);
+
     @Query("select it from Item as it where it.itemRequest in ?1")
     List<Item> findAllByRequestId(List<ItemRequest> requests);
 
     List<Item> findAllByItemRequest(ItemRequest itemRequest);
 
     List<Item> findAllByOwnerId(Long userId, Pageable pageable);
+
+    @Query("select i.id from Item as i left join i.itemRequest as r where i.owner.id = ?1 or r.requestorId = ?1")
+    List<Long> findIdsByOwnerOrRequestor(Long userId);
 }
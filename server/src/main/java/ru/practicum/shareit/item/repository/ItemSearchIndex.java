@@ -0,0 +1,256 @@
+package ru.practicum.shareit.item.repository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSearchMode;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ItemSearchIndex implements MeterBinder {
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long[] EMPTY = new long[0];
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final NavigableMap<String, long[]> postings = new TreeMap<>();
+    private final Map<Long, ItemShortDto> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.item.search-mode:LIKE}") ItemSearchMode searchMode) {
+        this.itemRepository = itemRepository;
+        this.enabled = searchMode == ItemSearchMode.IN_MEMORY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        List<Item> items = itemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            items.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс поиска вещей построен: вещей {}, слов {}.", documents.size(), postings.size());
+    }
+
+    public void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            add(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Вещи, удалённые каскадом в базе, сервис вещей не видит, поэтому их убирает тот, кто удалял владельца записи
+    public void removeAll(Collection<Long> itemIds) {
+        if (!enabled || itemIds.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            itemIds.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        Set<String> words = tokenize(text);
+        if (words.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            long[] found = null;
+            for (String word : words) {
+                long[] matches = findByPrefix(word);
+                found = found == null ? matches : intersect(found, matches);
+                if (found.length == 0) {
+                    return Collections.emptyList();
+                }
+            }
+            return Arrays.stream(found)
+                    .skip(from)
+                    .limit(size)
+                    .mapToObj(documents::get)
+                    .map(ItemSearchIndex::toItemDto)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimateMemoryUsage() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Map.Entry<String, long[]> entry : postings.entrySet()) {
+                bytes += 64 + 2L * entry.getKey().length() + 16 + 8L * entry.getValue().length;
+            }
+            for (ItemShortDto document : documents.values()) {
+                bytes += 128 + 2L * document.getName().length() + 2L * document.getDescription().length();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.item.search.index.memory", this, ItemSearchIndex::estimateMemoryUsage)
+                .description("Оценка памяти, занятой индексом поиска вещей")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("shareit.item.search.index.items", this, ItemSearchIndex::size)
+                .description("Количество вещей в индексе поиска")
+                .register(registry);
+    }
+
+    private void add(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        ItemShortDto document = ItemShortDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getItemRequest() != null ? item.getItemRequest().getId() : null)
+                .build();
+        documents.put(item.getId(), document);
+        for (String word : tokenize(document.getName() + " " + document.getDescription())) {
+            postings.put(word, insert(postings.getOrDefault(word, EMPTY), item.getId()));
+        }
+    }
+
+    private void remove(long itemId) {
+        ItemShortDto document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String word : tokenize(document.getName() + " " + document.getDescription())) {
+            long[] ids = delete(postings.getOrDefault(word, EMPTY), itemId);
+            if (ids.length == 0) {
+                postings.remove(word);
+            } else {
+                postings.put(word, ids);
+            }
+        }
+    }
+
+    private long[] findByPrefix(String prefix) {
+        Map<String, long[]> matches = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (matches.size() == 1) {
+            return matches.values().iterator().next();
+        }
+        return matches.values().stream()
+                .flatMapToLong(Arrays::stream)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private static Set<String> tokenize(String text) {
+        return DELIMITER.splitAsStream(text.toLowerCase())
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        position = -position - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        result[position] = id;
+        System.arraycopy(ids, position, result, position + 1, ids.length - position);
+        return result;
+    }
+
+    private static long[] delete(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        System.arraycopy(ids, position + 1, result, position, ids.length - position - 1);
+        return result;
+    }
+
+    private static long[] intersect(long[] first, long[] second) {
+        long[] result = new long[Math.min(first.length, second.length)];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static ItemDto toItemDto(ItemShortDto document) {
+        return ItemDto.builder()
+                .id(document.getId())
+                .name(document.getName())
+                .description(document.getDescription())
+                .available(document.getAvailable())
+                .requestId(document.getRequestId())
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.service;
+
+public enum ItemSearchMode {
+    // Поиск подстроки через like, работает на любой базе
+    LIKE,
+    // Полнотекстовый поиск PostgreSQL по GIN-индексу
+    FULL_TEXT,
+    // Поиск по инвертированному индексу в памяти сервера
+    IN_MEMORY
+}
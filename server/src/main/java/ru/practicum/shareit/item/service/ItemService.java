@@ -2,12 +2,16 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
+import java.util.Iterator;
 import java.util.List;
 
 public interface ItemService {
     ItemDto saveItem(ItemDto itemDto, Long userId);
 
+    ItemImportResultDto importItems(Iterator<ItemDto> itemDtos, Long userId);
+
     ItemDto findItemById(Long id, Long userId);
 
     ItemDto updateItem(ItemDto itemDto, Long id, Long userId);
@@ -1,23 +1,34 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingGetItemDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.exceptions.CommentException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.item.exceptions.ItemValidateException;
 import ru.practicum.shareit.item.exceptions.OwnerItemException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
 import ru.practicum.shareit.request.exceptions.RequestNotFoundException;
 import ru.practicum.shareit.request.exceptions.RequestValidateException;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -26,31 +37,97 @@ import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    // Вещи с ближайшим бронированием идут первыми, без бронирований - в конце по id
+    public static final Comparator<ItemDto> NEXT_BOOKING_ORDER = (o1, o2) -> {
+        if (o1.getNextBooking() == null && o2.getNextBooking() == null) {
+            return o1.getId().compareTo(o2.getId());
+        }
+        if (o1.getNextBooking() != null && o2.getNextBooking() == null) {
+            return -1;
+        }
+        if (o1.getNextBooking() == null) {
+            return 1;
+        }
+        if (o1.getNextBooking().getStart().isBefore(o2.getNextBooking().getStart())) {
+            return -1;
+        }
+        if (o1.getNextBooking().getStart().isAfter(o2.getNextBooking().getStart())) {
+            return 1;
+        }
+        return 0;
+    };
+    private static final Pattern SEARCH_DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_IMPORT_ERRORS = 100;
+
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final EntityManager entityManager;
+    @Value("${shareit.item.search-mode:LIKE}")
+    private ItemSearchMode searchMode = ItemSearchMode.LIKE;
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int importChunkSize = 50;
 
     @Override
     public ItemDto saveItem(ItemDto itemDto, Long userId) {
         User user = checkUser(userId);
+        validateNewItem(itemDto);
         Item item = ItemMapper.toItem(itemDto, user);
         item.setOwner(user);
         if (itemDto.getRequestId() != null) {
             item.setItemRequest(findItemRequestById(itemDto.getRequestId()));
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
+        return ItemMapper.toItemDto(savedItem);
+    }
+
+    // Импорт идёт одной транзакцией: при битом JSON или ошибке БД он откатывается целиком, и клиенту не нужно
+    // выяснять, какая часть загрузки сохранилась. Невалидные вещи импорт не прерывают - они пропускаются и
+    // попадают в errors. Цена - одна долгая транзакция на всю загрузку; память при этом не растёт,
+    // потому что каждая пачка сбрасывается в БД и убирается из контекста
+    @Override
+    @Transactional
+    public ItemImportResultDto importItems(Iterator<ItemDto> itemDtos, Long userId) {
+        User owner = checkUser(userId);
+        rebuildSearchIndexOnRollback();
+        ItemImportResultDto result = new ItemImportResultDto();
+        // Наличие запросов проверяется один раз на весь импорт: по одному обращению к БД на пачку новых id
+        Map<Long, Boolean> knownRequests = new HashMap<>();
+        List<ItemDto> chunk = new ArrayList<>(importChunkSize);
+        long index = 0;
+        while (itemDtos.hasNext()) {
+            chunk.add(itemDtos.next());
+            if (chunk.size() == importChunkSize) {
+                importChunk(chunk, index, owner, knownRequests, result);
+                index += chunk.size();
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, index, owner, knownRequests, result);
+        return result;
     }
 
     @Override
@@ -62,7 +139,7 @@ public class ItemServiceImpl implements ItemService {
             LocalDateTime now = LocalDateTime.now();
             return mapItemDtoForOwner(item, now, CommentMapper.toDtoList(comments));
         }
-        return ItemMapper.toItemDtoWithBookingAndComments(item, null, null, CommentMapper.toDtoList(comments));
+        return ItemMapper.toItemDtoWithComments(item, CommentMapper.toDtoList(comments));
 
     }
 
@@ -83,14 +160,14 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
         List<Comment> comments = commentRepository.findByItemId(id);
-        itemRepository.save(item);
+        itemSearchIndex.index(itemRepository.save(item));
         return ItemMapper.toItemDtoWithComments(item, CommentMapper.toDtoList(comments));
     }
 
     @Override
     public List<ItemDto> findAllItemsOfUser(Long userId, int from, int size) {
-        User user = checkUser(userId);
-        List<Item> items = itemRepository.findAllByOwnerId(user.getId(), pagination(from, size));
+        checkUserExists(userId);
+        List<Item> items = itemRepository.findAllByOwnerId(userId, pagination(from, size));
         List<ItemDto> itemsDto = new ArrayList<>();
         mapItemDtoList(itemsDto, items, userId);
         return sortItemsDtoList(itemsDto);
@@ -102,8 +179,20 @@ public class ItemServiceImpl implements ItemService {
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.searchItemsByText(text, pageRequest)
-                .stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+        if (searchMode == ItemSearchMode.IN_MEMORY) {
+            return itemSearchIndex.search(text, from, size);
+        }
+        List<Item> items;
+        if (searchMode == ItemSearchMode.FULL_TEXT) {
+            String query = toFullTextQuery(text);
+            if (query.isEmpty()) {
+                return Collections.emptyList();
+            }
+            items = itemRepository.searchItemsByFullText(query, pageRequest);
+        } else {
+            items = itemRepository.searchItemsByText(text, pageRequest);
+        }
+        return items.stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
     }
 
     @Override
@@ -123,33 +212,112 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private void mapItemDtoList(List<ItemDto> itemsDto, List<Item> items, Long userId) {
+        if (items.isEmpty()) {
+            return;
+        }
         LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+
+        Map<Long, List<CommentDto>> commentsByItem = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        Map<Long, BookingGetItemDto> lastBookings = new HashMap<>();
+        Map<Long, BookingGetItemDto> nextBookings = new HashMap<>();
+        for (BookingShortDto booking : bookingRepository.findLastAndNextBookingsByItemIds(itemIds, now)) {
+            if (Boolean.TRUE.equals(booking.getLast())) {
+                lastBookings.put(booking.getItemId(), BookingMapper.toBookingGetItemDto(booking));
+            } else {
+                nextBookings.put(booking.getItemId(), BookingMapper.toBookingGetItemDto(booking));
+            }
+        }
 
         for (Item item : items) {
-            List<Comment> comments = commentRepository.findByItemId(item.getId());
-            List<CommentDto> commentDtoList = CommentMapper.toDtoList(comments);
+            List<CommentDto> commentDtoList = commentsByItem.getOrDefault(item.getId(), new ArrayList<>());
             if (item.getOwner().getId().equals(userId)) {
-                ItemDto dto = mapItemDtoForOwner(item, now, commentDtoList);
-                itemsDto.add(dto);
+                itemsDto.add(ItemMapper.toItemDtoWithBookingAndComments(item,
+                        lastBookings.get(item.getId()), nextBookings.get(item.getId()), commentDtoList));
             } else {
                 itemsDto.add(ItemMapper.toItemDtoWithComments(item, commentDtoList));
             }
         }
     }
 
+    private void importChunk(List<ItemDto> chunk, long firstIndex, User owner, Map<Long, Boolean> knownRequests,
+                             ItemImportResultDto result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<Long> newRequestIds = chunk.stream()
+                .map(ItemDto::getRequestId)
+                .filter(requestId -> requestId != null && !knownRequests.containsKey(requestId))
+                .collect(Collectors.toSet());
+        if (!newRequestIds.isEmpty()) {
+            newRequestIds.forEach(requestId -> knownRequests.put(requestId, false));
+            itemRequestRepository.findAllById(newRequestIds)
+                    .forEach(itemRequest -> knownRequests.put(itemRequest.getId(), true));
+        }
+
+        List<Item> items = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ItemDto itemDto = chunk.get(i);
+            try {
+                validateNewItem(itemDto);
+                Item item = ItemMapper.toItem(itemDto, owner);
+                item.setId(null);
+                if (itemDto.getRequestId() != null) {
+                    if (!knownRequests.get(itemDto.getRequestId())) {
+                        throw new RequestNotFoundException("Запрос не найден.");
+                    }
+                    item.setItemRequest(itemRequestRepository.getReferenceById(itemDto.getRequestId()));
+                }
+                items.add(item);
+            } catch (ItemValidateException | RequestNotFoundException e) {
+                result.setFailed(result.getFailed() + 1);
+                if (result.getErrors().size() < MAX_IMPORT_ERRORS) {
+                    result.getErrors().add(new ItemImportErrorDto(firstIndex + i, e.getMessage()));
+                }
+            }
+        }
+        // Пачка уходит в БД одним batch-запросом, затем контекст очищается, чтобы память не росла с размером загрузки
+        itemRepository.saveAll(items);
+        entityManager.flush();
+        entityManager.clear();
+        items.forEach(itemSearchIndex::index);
+        result.setImported(result.getImported() + items.size());
+    }
+
+    private void rebuildSearchIndexOnRollback() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    itemSearchIndex.rebuild();
+                }
+            }
+        });
+    }
+
     private ItemDto mapItemDtoForOwner(Item item, LocalDateTime now, List<CommentDto> comments) {
-        Booking lastBooking = bookingRepository.findBookingByItemIdAndEndBefore(item.getId(), now,
-                        BookingStatus.REJECTED)
-                .stream().findFirst()
-                .orElse(bookingRepository.findBookingsByItemOwnerCurrent(item.getOwner().getId(), now)
-                        .stream().findFirst().orElse(null));
-        List<Booking> nextBookings = bookingRepository.findBookingByItemIdAndStartAfter(item.getId(), now,
-                BookingStatus.REJECTED);
+        Pageable first = PageRequest.of(0, 1);
+        BookingGetItemDto lastBooking = bookingRepository.findLastBookingByItemId(item.getId(), now,
+                        BookingStatus.REJECTED, first)
+                .stream().findFirst().orElse(null);
+        BookingGetItemDto nextBooking = bookingRepository.findNextBookingByItemId(item.getId(), now,
+                        BookingStatus.REJECTED, first)
+                .stream().findFirst().orElse(null);
+
+        return ItemMapper.toItemDtoWithBookingAndComments(item, lastBooking, nextBooking, comments);
+    }
 
-        return ItemMapper.toItemDtoWithBookingAndComments(item,
-                lastBooking,
-                nextBookings.size() > 0 ? nextBookings.get(nextBookings.size() - 1) : null,
-                comments);
+    // Слова - только буквы и цифры: операторы tsquery (& | ! ( ) : * ') служат разделителями и до to_tsquery не доходят
+    private String toFullTextQuery(String text) {
+        return SEARCH_DELIMITER.splitAsStream(text.toLowerCase())
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
     }
 
     private ItemRequest findItemRequestById(Long requestId) {
@@ -164,27 +332,27 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private List<ItemDto> sortItemsDtoList(List<ItemDto> itemsDto) {
-        itemsDto.sort((o1, o2) -> {
-            if (o1.getNextBooking() == null && o2.getNextBooking() == null) {
-                return o1.getId().compareTo(o2.getId());
-            }
-            if (o1.getNextBooking() != null && o2.getNextBooking() == null) {
-                return -1;
-            }
-            if (o1.getNextBooking() == null) {
-                return 1;
-            }
-            if (o1.getNextBooking().getStart().isBefore(o2.getNextBooking().getStart())) {
-                return -1;
-            }
-            if (o1.getNextBooking().getStart().isAfter(o2.getNextBooking().getStart())) {
-                return 1;
-            }
-            return 0;
-        });
+        itemsDto.sort(NEXT_BOOKING_ORDER);
         return itemsDto;
     }
 
+    // Шлюз проверяет то же самое аннотациями, но импорт и прямые вызовы сервера приходят в обход этих проверок
+    private void validateNewItem(ItemDto itemDto) {
+        if (isBlank(itemDto.getName()) || isBlank(itemDto.getDescription()) || itemDto.getAvailable() == null) {
+            throw new ItemValidateException("Ошибка валидации вещи.");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь не найден.");
+        }
+    }
+
     private User checkUser(Long userId) {
         return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден."));
     }
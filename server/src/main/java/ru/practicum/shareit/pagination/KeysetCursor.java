@@ -0,0 +1,54 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.request.exceptions.RequestValidateException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Позиция в выдаче, отсортированной по убыванию времени и id: бронирования по началу, запросы по созданию.
+ * Клиент получает следующую позицию в заголовке X-Next-Cursor и передаёт её обратно параметром cursor.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    private final LocalDateTime time;
+    private final Long id;
+
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            return new KeysetCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new RequestValidateException("Ошибка пагинации.");
+        }
+    }
+
+    public String encode() {
+        String value = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Неполная страница - последняя, курсор на следующую отдаётся только после полной
+    public static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, int size, Function<T, KeysetCursor> keyOf) {
+        if (page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, keyOf.apply(page.get(page.size() - 1)).encode())
+                .body(page);
+    }
+}
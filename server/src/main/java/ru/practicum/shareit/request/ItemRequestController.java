@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestLongDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -34,10 +36,15 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestLongDto> findAllRequests(@RequestParam(defaultValue = "0") int from,
-                                                    @RequestParam(defaultValue = "10") int size,
-                                                    @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return service.findAllRequests(from, size, userId);
+    public ResponseEntity<List<ItemRequestLongDto>> findAllRequests(@RequestParam(defaultValue = "0") int from,
+                                                                    @RequestParam(defaultValue = "10") int size,
+                                                                    @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                    @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(service.findAllRequests(from, size, userId));
+        }
+        return KeysetCursor.withNextCursor(service.findAllRequests(KeysetCursor.decode(cursor), size, userId), size,
+                request -> new KeysetCursor(request.getCreated(), request.getId()));
     }
 
     @GetMapping("/{requestId}")
@@ -1,17 +1,22 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestorId(long userId, Sort sort);
 
-    @Query("select ir from ItemRequest as ir where ir.requestorId not in ?1")
-    Page<ItemRequest> findAllForeign(long ownerId, Pageable pageable);
+    @Query("select ir from ItemRequest as ir where ir.requestorId <> ?1")
+    Slice<ItemRequest> findAllForeign(long ownerId, Pageable pageable);
+
+    @Query("select ir from ItemRequest as ir where ir.requestorId <> ?1 and " +
+            "(ir.created < ?2 or (ir.created = ?2 and ir.id < ?3)) order by ir.created desc, ir.id desc")
+    List<ItemRequest> findAllForeignSeek(long ownerId, LocalDateTime created, Long id, Pageable pageable);
 }
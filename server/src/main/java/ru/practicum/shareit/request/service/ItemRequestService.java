@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestLongDto;
 
@@ -12,6 +13,8 @@ public interface ItemRequestService {
 
     List<ItemRequestLongDto> findAllRequests(int from, int size, Long userId);
 
+    List<ItemRequestLongDto> findAllRequests(KeysetCursor cursor, int size, Long userId);
+
     ItemRequestLongDto findRequestById(Long requestId, Long userId);
 
 }
@@ -1,13 +1,16 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestLongDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
@@ -16,7 +19,6 @@ import ru.practicum.shareit.request.exceptions.RequestValidateException;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
-import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
@@ -25,6 +27,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserRepository userRepository;
@@ -34,7 +37,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestDto createRequest(ItemRequestDto requestDto, Long userId) {
-        findUser(userId);
+        checkUserExists(userId);
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(requestDto);
         itemRequest.setCreated(LocalDateTime.now());
         itemRequest.setRequestorId(userId);
@@ -46,7 +49,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public List<ItemRequestLongDto> findUserRequests(Long userId) {
-        findUser(userId);
+        checkUserExists(userId);
 
         Sort sort = Sort.by(Sort.Direction.DESC, "created");
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorId(userId, sort);
@@ -59,7 +62,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public List<ItemRequestLongDto> findAllRequests(int from, int size, Long userId) {
-        findUser(userId);
+        checkUserExists(userId);
         List<ItemRequest> itemRequests = itemRequestRepository.findAllForeign(userId, pagination(from, size)).toList();
         Map<ItemRequest, List<Item>> itemsByRequests = itemRepository.findAllByRequestId(itemRequests)
                 .stream().collect(Collectors.groupingBy(Item::getItemRequest, Collectors.toList()));
@@ -67,9 +70,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.toListItemRequestDtoForOwner(itemRequests, itemsByRequests);
     }
 
+    @Override
+    @Transactional
+    public List<ItemRequestLongDto> findAllRequests(KeysetCursor cursor, int size, Long userId) {
+        checkUserExists(userId);
+        if (size <= 0) {
+            throw new RequestValidateException("Ошибка пагинации.");
+        }
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllForeignSeek(userId, cursor.getTime(),
+                cursor.getId(), PageRequest.of(0, size));
+        Map<ItemRequest, List<Item>> itemsByRequests = itemRepository.findAllByRequestId(itemRequests)
+                .stream().collect(Collectors.groupingBy(Item::getItemRequest, Collectors.toList()));
+
+        return ItemRequestMapper.toListItemRequestDtoForOwner(itemRequests, itemsByRequests);
+    }
+
     @Override
     public ItemRequestLongDto findRequestById(Long requestId, Long userId) {
-        findUser(userId);
+        checkUserExists(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RequestNotFoundException("Запрос не найден."));
         List<Item> itemsByRequest = itemRepository.findAllByItemRequest(itemRequest);
@@ -77,14 +95,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.toItemRequestDtoForOwner(itemRequest, itemsByRequest);
     }
 
-    private User findUser(Long userId) {
-        return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден."));
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь не найден.");
+        }
     }
 
     private Pageable pagination(int from, int size) {
         if (from < 0 || size <= 0) {
             throw new RequestValidateException("Ошибка пагинации.");
         }
-        return PageRequest.of(from == 0 ? 0 : (from / size), size, Sort.by(Sort.Direction.DESC, "created"));
+        return PageRequest.of(from == 0 ? 0 : (from / size), size, Sort.by(Sort.Direction.DESC, "created", "id"));
     }
 }
@@ -17,6 +17,14 @@ public class UserMapper {
                 .build();
     }
 
+    public static UserDto toUserDto(UserSnapshot user) {
+        return UserDto.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .name(user.getName())
+                .build();
+    }
+
     public static User toUser(UserDto userDto) {
         return User.builder()
                 .email(userDto.getEmail())
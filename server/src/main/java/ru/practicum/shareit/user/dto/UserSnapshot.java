@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Value;
+
+/**
+ * Неизменяемая копия пользователя, которая хранится в кэше.
+ * Сущность User в кэш не кладётся: она управляется сессией Hibernate, и изменения одного запроса
+ * через общую ссылку были бы видны остальным.
+ */
+@Value
+public class UserSnapshot {
+    Long id;
+    String name;
+    String email;
+}
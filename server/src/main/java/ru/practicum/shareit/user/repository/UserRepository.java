@@ -1,8 +1,22 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Optional;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+    String USERS_CACHE = "users";
+    String USER_EXISTS_CACHE = "userExists";
+
+    @Cacheable(cacheNames = USERS_CACHE, unless = "#result == null")
+    @Query("select new ru.practicum.shareit.user.dto.UserSnapshot(u.id, u.name, u.email) from User as u where u.id = ?1")
+    Optional<UserSnapshot> findSnapshotById(Long id);
 
+    @Override
+    @Cacheable(cacheNames = USER_EXISTS_CACHE, unless = "!#result")
+    boolean existsById(Long id);
 }
@@ -1,23 +1,40 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
+import ru.practicum.shareit.config.MetricsConfig;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.transaction.Transactional;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
 
+    private final ItemRepository itemRepository;
+
+    private final ItemSearchIndex itemSearchIndex;
+
+    private final CacheManager cacheManager;
+
     @Override
     public UserDto saveUser(UserDto userDto) {
         User newUser = UserMapper.toUser(userDto);
@@ -35,19 +52,43 @@ public class UserServiceImpl implements UserService {
         User user = patchUser(userDto, userId);
         user.setId(userId);
         user = userRepository.save(user);
+        evictAfterCommit(userId, UserRepository.USERS_CACHE);
         return UserMapper.toUserDto(user);
     }
 
     @Override
     public UserDto findUserById(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден."));
+        UserSnapshot user = userRepository.findSnapshotById(userId)
+                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден."));
 
         return UserMapper.toUserDto(user);
     }
 
     @Override
     public void deleteUserById(Long userId) {
+        // Вместе с пользователем база каскадом удаляет его запросы и вещи, созданные под эти запросы
+        List<Long> itemIds = itemRepository.findIdsByOwnerOrRequestor(userId);
         userRepository.deleteById(userId);
+        evictAfterCommit(userId, UserRepository.USERS_CACHE, UserRepository.USER_EXISTS_CACHE);
+        itemSearchIndex.removeAll(itemIds);
+    }
+
+    // Сброс до фиксации транзакции не защищает кэш: параллельный запрос успеет прочитать старую строку и закэшировать её
+    private void evictAfterCommit(Long userId, String... cacheNames) {
+        Runnable evict = () -> Arrays.stream(cacheNames)
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(cache -> cache.evict(userId));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
     }
 
     private User patchUser(UserDto patch, Long userId) {
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS items_search_index
+    ON items USING GIN (to_tsvector('simple', name || ' ' || description));
@@ -3,10 +3,19 @@ DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+
+-- id выдаёт только Hibernate (PooledSequenceGenerator): один nextval - блок из 50 id, поэтому у колонок нет
+-- DEFAULT nextval, и строки вставляются только через приложение
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id    BIGINT                                  NOT NULL,
     name  VARCHAR                                 NOT NULL,
     email VARCHAR UNIQUE                          NOT NULL,
     CONSTRAINT user_id_pk PRIMARY KEY (id)
@@ -18,9 +27,11 @@ CREATE UNIQUE INDEX IF NOT EXISTS users_email_uindex
 CREATE UNIQUE INDEX IF NOT EXISTS users_id_uindex
     ON users (id);
 
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT                                  NOT NULL,
     name         VARCHAR                                 NOT NULL,
     description  VARCHAR                                 NOT NULL,
     is_available BOOLEAN                                 NOT NULL,
@@ -32,23 +43,40 @@ CREATE TABLE IF NOT EXISTS items
 CREATE UNIQUE INDEX IF NOT EXISTS items_id_uindex
     ON items (id);
 
+CREATE INDEX IF NOT EXISTS items_owner_index
+    ON items (owner_id, id);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id         BIGINT                                  NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
     end_date   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
     item_id    BIGINT REFERENCES items (id)            NOT NULL,
     booker_id  BIGINT REFERENCES users (id)            NOT NULL,
     status     VARCHAR                                 NOT NULL,
+    version    BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT bookings_id_pk PRIMARY KEY (id)
 );
 
-CREATE UNIQUE INDEX IF NOT EXISTS bookings_id_uindex
-    ON bookings (id);
+CREATE INDEX IF NOT EXISTS bookings_booker_start_index
+    ON bookings (booker_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_index
+    ON bookings (booker_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_index
+    ON bookings (item_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_index
+    ON bookings (item_id, status, start_date DESC);
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    comment_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    comment_id BIGINT                                  NOT NULL,
     text       VARCHAR                                 NOT NULL,
     item_id    BIGINT REFERENCES items (id)            NOT NULL,
     author_id  BIGINT REFERENCES users (id)            NOT NULL,
@@ -56,9 +84,11 @@ CREATE TABLE IF NOT EXISTS comments
     PRIMARY KEY (comment_id)
 );
 
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS requests
 (
-    request_id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    request_id   BIGINT                                 PRIMARY KEY,
     description  VARCHAR NOT NULL,
     requestor_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
     created      TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
@@ -0,0 +1,98 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.config.MetricsConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMetrics
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Sql(value = {"/test-schema.sql", "/test-users.sql", "/test-request.sql", "/test-items-with-requests.sql",
+        "/test-bookings.sql"})
+public class MetricsTests {
+    private MockMvc mockMvc;
+    private final MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void start(WebApplicationContext wac) {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(wac)
+                .build();
+    }
+
+    @SneakyThrows
+    @Test
+    void requestQueryMetricsTest() {
+        long requests = summaryCount(MetricsConfig.REQUEST_STATEMENTS, "/bookings/owner");
+        double statements = summaryTotal(MetricsConfig.REQUEST_STATEMENTS, "/bookings/owner");
+        double entityLoads = summaryTotal(MetricsConfig.REQUEST_ENTITY_LOADS, "/bookings/owner");
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk());
+
+        assertThat(summaryCount(MetricsConfig.REQUEST_STATEMENTS, "/bookings/owner")).isEqualTo(requests + 1);
+        // проверка пользователя, проверка наличия вещей и сама выборка
+        assertThat(summaryTotal(MetricsConfig.REQUEST_STATEMENTS, "/bookings/owner")).isEqualTo(statements + 3);
+        assertThat(summaryTotal(MetricsConfig.REQUEST_ENTITY_LOADS, "/bookings/owner")).isGreaterThan(entityLoads);
+    }
+
+    @SneakyThrows
+    @Test
+    void serviceTimerTest() {
+        long calls = timerCount("findItemById");
+
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk());
+
+        assertThat(timerCount("findItemById")).isEqualTo(calls + 1);
+    }
+
+    @SneakyThrows
+    @Test
+    void prometheusEndpointTest() {
+        mockMvc.perform(get("/users/1"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("shareit_service_seconds_count{")))
+                .andExpect(content().string(containsString("method=\"findUserById\"")))
+                .andExpect(content().string(containsString("shareit_request_jdbc_statements_count{")))
+                .andExpect(content().string(containsString("uri=\"/users/{userId}\"")));
+    }
+
+    private long summaryCount(String name, String uri) {
+        DistributionSummary summary = meterRegistry.find(name).tags("method", "GET", "uri", uri).summary();
+        return summary == null ? 0 : summary.count();
+    }
+
+    private double summaryTotal(String name, String uri) {
+        DistributionSummary summary = meterRegistry.find(name).tags("method", "GET", "uri", uri).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private long timerCount(String method) {
+        Timer timer = meterRegistry.find(MetricsConfig.SERVICE_TIMER).tag("method", method).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
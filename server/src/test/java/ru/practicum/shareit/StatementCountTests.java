@@ -0,0 +1,83 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Sql(value = {"/test-schema.sql", "/test-users.sql", "/test-request.sql", "/test-items-with-requests.sql",
+        "/test-bookings.sql"})
+public class StatementCountTests {
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void start(WebApplicationContext wac) {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(wac)
+                .build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void stop() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllBookingsByUserStatementCountTest() {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        // проверка пользователя и сама выборка
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllBookingsByOwnerStatementCountTest() {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        // проверка пользователя, проверка наличия вещей и сама выборка
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllItemsOfUserStatementCountTest() {
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+
+        // проверка пользователя, вещи, бронирования и комментарии
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit;
+
+import brave.Span;
+import brave.TracingCustomizer;
+import brave.handler.MutableSpan;
+import brave.test.TestSpanHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.sleuth.sampler.probability=1.0")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Sql(value = {"/test-schema.sql", "/test-users.sql", "/test-request.sql", "/test-items-with-requests.sql",
+        "/test-bookings.sql"})
+public class TracingTests {
+    private static final String TRACE_ID = "463ac35c9f6413ad48485a3953bb6124";
+    private static final String GATEWAY_SPAN_ID = "a2fb4a1d1a96d312";
+
+    private static final TestSpanHandler SPANS = new TestSpanHandler();
+
+    private final MockMvc mockMvc;
+
+    @BeforeEach
+    void clearSpans() {
+        SPANS.clear();
+    }
+
+    @SneakyThrows
+    @Test
+    void serverSpanContinuesGatewayTraceTest() {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("b3", TRACE_ID + "-" + GATEWAY_SPAN_ID + "-1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk());
+
+        MutableSpan server = serverSpan();
+        assertThat(server.traceId()).isEqualTo(TRACE_ID);
+        assertThat(server.parentId()).isEqualTo(GATEWAY_SPAN_ID);
+        assertThat(server.tags()).containsEntry("http.path", "/bookings/owner")
+                .containsEntry("X-Sharer-User-Id", "1");
+    }
+
+    @SneakyThrows
+    @Test
+    void jdbcStatementsAreChildSpansTest() {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("b3", TRACE_ID + "-" + GATEWAY_SPAN_ID + "-1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk());
+
+        MutableSpan server = serverSpan();
+        List<MutableSpan> queries = SPANS.spans().stream()
+                .filter(span -> span.tags().containsKey("jdbc.query"))
+                .collect(Collectors.toList());
+        // проверка пользователя, проверка наличия вещей и сама выборка
+        assertThat(queries).hasSize(3)
+                .allSatisfy(query -> {
+                    assertThat(query.traceId()).isEqualTo(TRACE_ID);
+                    assertThat(query.parentId()).isEqualTo(server.id());
+                    assertThat(query.tags()).containsEntry("X-Sharer-User-Id", "1");
+                });
+        assertThat(queries.get(queries.size() - 1).tags().get("jdbc.query")).containsIgnoringCase("from bookings");
+    }
+
+    @SneakyThrows
+    @Test
+    void requestWithoutGatewayHeadersStartsNewTraceTest() {
+        mockMvc.perform(get("/users/1"))
+                .andExpect(status().isOk());
+
+        MutableSpan server = serverSpan();
+        assertThat(server.parentId()).isNull();
+        assertThat(server.tags()).doesNotContainKey("X-Sharer-User-Id");
+    }
+
+    private MutableSpan serverSpan() {
+        return SPANS.spans().stream()
+                .filter(span -> span.kind() == Span.Kind.SERVER)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // Как и выгрузка в файл, обработчик добавляется последним, после переноса baggage в теги
+    @TestConfiguration
+    static class InMemorySpans {
+        @Bean
+        TracingCustomizer inMemorySpans() {
+            return builder -> builder.addSpanHandler(SPANS);
+        }
+    }
+}
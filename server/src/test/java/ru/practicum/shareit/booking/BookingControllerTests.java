@@ -10,18 +10,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingGetDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,6 +43,31 @@ public class BookingControllerTests {
     @MockBean
     private BookingService bookingService;
 
+    @SneakyThrows
+    @Test
+    void createBookingsTest() {
+        long userId = 2L;
+        List<BookingDto> bookingDtos = List.of(BookingDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build());
+        List<BookingBatchResultDto> results = List.of(new BookingBatchResultDto(0, null, "Вещь не найдена."));
+        when(bookingService.createBookings(any(), anyLong())).thenReturn(results);
+
+        String content = mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingDtos)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        verify(bookingService).createBookings(bookingDtos, userId);
+        Assertions.assertEquals(objectMapper.writeValueAsString(results), content);
+    }
+
     @SneakyThrows
     @Test
     void findBookingByIdTest() {
@@ -64,6 +93,34 @@ public class BookingControllerTests {
         verify(bookingService).findAllBookingsByUser(0, 10, 1L, BookingState.ALL.name());
     }
 
+    @SneakyThrows
+    @Test
+    void findAllBookingsByUserWithCursorTest() {
+        BookingGetDto booking = BookingGetDto.builder()
+                .id(7L)
+                .start(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .build();
+        when(bookingService.findAllBookingsByUser(any(KeysetCursor.class), anyInt(), anyLong(), any()))
+                .thenReturn(List.of(booking));
+
+        String cursor = mockMvc.perform(get("/bookings?cursor=&size=1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+
+        KeysetCursor nextCursor = KeysetCursor.decode(cursor);
+        Assertions.assertEquals(booking.getStart(), nextCursor.getTime());
+        Assertions.assertEquals(booking.getId(), nextCursor.getId());
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllBookingsByOwnerWithWrongCursorTest() {
+        mockMvc.perform(get("/bookings/owner?cursor=wrong")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
     @SneakyThrows
     @Test
     void findAllBookingsByOwnerTest() {
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Планы запросов проверяются на встроенном PostgreSQL: выбор индекса в H2 о плане PostgreSQL ничего не говорит
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingIndexPlanTests {
+    private static final String INDEX_SCAN = "(?s).*(Index (Only )?Scan( Backward)? using|Bitmap Index Scan on) "
+            + "%s .*";
+    private static final List<String> STATE_CONDITIONS = List.of(
+            "",
+            "and b.start_date < now() and b.end_date > now() ",
+            "and b.end_date < now() ",
+            "and b.start_date > now() ",
+            "and b.status = 'WAITING' ",
+            "and b.status = 'REJECTED' ");
+
+    private static EmbeddedPostgres postgres;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.sql.init.schema-locations",
+                () -> "classpath:schema.sql,classpath:schema-full-text.sql,classpath:schema-booking-overlap.sql");
+        registry.add("spring.jpa.properties.shareit.id.allocation-size", () -> "50");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    // 1000 пользователей, 2000 вещей у 500 владельцев и 100 000 бронирований: на трёх строках PostgreSQL
+    // читает таблицу целиком при любых индексах. Бронирования одной вещи идут подряд с шагом 10 дней
+    // и не пересекаются, чтобы подтверждённые прошли ограничение bookings_approved_no_overlap
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into users (id, name, email) " +
+                "select g, 'user' || g, 'user' || g || '@mail.ru' from generate_series(1, 1000) as g");
+        jdbcTemplate.update("insert into items (id, name, description, is_available, owner_id) " +
+                "select g, 'item' || g, 'description' || g, true, g % 500 + 1 from generate_series(1, 2000) as g");
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "select g, now() - interval '250 days' + (g / 2000) * interval '10 days', " +
+                "now() - interval '250 days' + (g / 2000) * interval '10 days' + (1 + g % 9) * interval '1 day', " +
+                "g % 2000 + 1, g % 1000 + 1, (array['WAITING', 'APPROVED', 'REJECTED', 'CANCELED'])[g % 4 + 1] " +
+                "from generate_series(0, 99999) as g");
+        jdbcTemplate.execute("analyze users");
+        jdbcTemplate.execute("analyze items");
+        jdbcTemplate.execute("analyze bookings");
+    }
+
+    @Test
+    void bookerStateQueriesUseBookerIndexesTest() {
+        for (String condition : STATE_CONDITIONS) {
+            assertThat(explain("select b.* from bookings as b where b.booker_id = 2 " + condition +
+                    "order by b.start_date desc limit 10"))
+                    .as(condition)
+                    .matches(String.format(INDEX_SCAN, "bookings_booker_(status_)?start_index"))
+                    .doesNotContain("Seq Scan on bookings");
+        }
+    }
+
+    @Test
+    void ownerStateQueriesUseItemIndexesTest() {
+        for (String condition : STATE_CONDITIONS) {
+            assertThat(explain("select b.* from bookings as b join items as i on b.item_id = i.id " +
+                    "where i.owner_id = 1 " + condition + "order by b.start_date desc limit 10"))
+                    .as(condition)
+                    .matches(String.format(INDEX_SCAN, "bookings_item_(status_)?start_index"))
+                    .doesNotContain("Seq Scan on bookings");
+        }
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+    }
+}
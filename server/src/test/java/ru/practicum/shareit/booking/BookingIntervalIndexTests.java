@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.exceptions.BookingLockTimeoutException;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingIntervalIndex;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTests {
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void start() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new BookingIntervalIndex(bookingRepository, 1000, Duration.ofMinutes(30), Duration.ofMillis(100));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void finish() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            completeTransaction();
+        }
+    }
+
+    @Test
+    void lockTimeoutFailsWithConflictTest() {
+        index.lock(1L);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () ->
+                CompletableFuture.runAsync(() -> lockInTransaction(1L)).get());
+
+        assertEquals(BookingLockTimeoutException.class, exception.getCause().getClass());
+    }
+
+    @Test
+    void lockIsReleasedAfterTransactionTest() {
+        index.lock(1L);
+        completeTransaction();
+
+        assertDoesNotThrow(() -> CompletableFuture.runAsync(() -> lockInTransaction(1L)).get());
+    }
+
+    @Test
+    void createCheckDoesNotWaitForLockTest() {
+        index.lock(1L);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertDoesNotThrow(() -> CompletableFuture.runAsync(() ->
+                assertFalse(index.overlapsWithoutLock(1L, start, start.plusDays(1)))).get());
+    }
+
+    @Test
+    void startedIntervalIsCheckedInDatabaseTest() {
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        when(bookingRepository.findAllByItemIdAndStatusAndEndAfter(eq(1L), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of());
+        when(bookingRepository.existsByItemIdAndStatusAndIdNotAndStartBeforeAndEndAfter(1L, BookingStatus.APPROVED,
+                5L, start.plusDays(3), start)).thenReturn(true);
+
+        // Пересекающееся бронирование уже закончилось, в памяти его нет
+        assertTrue(index.overlaps(1L, 5L, start, start.plusDays(3)));
+    }
+
+    private void lockInTransaction(long itemId) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.lock(itemId);
+        } finally {
+            completeTransaction();
+        }
+    }
+
+    // Замки отпускаются в afterCompletion, как при завершении настоящей транзакции
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+}
@@ -9,10 +9,12 @@ import ru.practicum.shareit.booking.dto.BookingGetDto;
 import ru.practicum.shareit.booking.exceptions.BookingCreateException;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
 import ru.practicum.shareit.booking.exceptions.BookingStateException;
+import ru.practicum.shareit.booking.exceptions.BookingStatusConflictException;
 import ru.practicum.shareit.booking.exceptions.BookingStatusUpdateException;
 import ru.practicum.shareit.booking.exceptions.UserBookOwnItemException;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingIntervalIndex;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
@@ -21,6 +23,7 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -51,7 +54,8 @@ public class BookingMockServiceTests {
         userRepository = mock(UserRepository.class);
         itemRepository = mock(ItemRepository.class);
         bookingRepository = mock(BookingRepository.class);
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                new BookingIntervalIndex(bookingRepository, 1000, Duration.ofMinutes(30), Duration.ofSeconds(2)));
 
         inputDto = BookingDto.builder()
                 .itemId(5L)
@@ -141,7 +145,7 @@ public class BookingMockServiceTests {
 
         when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
 
-        when(bookingRepository.save(any())).thenReturn(booking);
+        when(bookingRepository.updateStatus(anyLong(), any(), any())).thenReturn(1);
 
         BookingGetDto result = bookingService.updateBookingStatus(1L, 3L, true);
 
@@ -150,6 +154,22 @@ public class BookingMockServiceTests {
         assertEquals(BookingStatus.APPROVED, result.getStatus());
     }
 
+    @Test
+    void updateBookingWithBookingStatusConflictExceptionTest() {
+        booking.setStatus(BookingStatus.WAITING);
+
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
+
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+
+        when(bookingRepository.updateStatus(anyLong(), any(), any())).thenReturn(0);
+
+        BookingStatusConflictException exception = assertThrows(BookingStatusConflictException.class, () ->
+                bookingService.updateBookingStatus(1L, 3L, false));
+
+        assertEquals("Статус бронирования уже изменён другим запросом.", exception.getMessage());
+    }
+
     @Test
     void updateBookingWithBookingNotFoundExceptionTest() {
         booking.setStatus(BookingStatus.WAITING);
@@ -185,7 +205,7 @@ public class BookingMockServiceTests {
     void findBookingByIdTest() {
         item.setOwner(owner);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
 
@@ -199,7 +219,7 @@ public class BookingMockServiceTests {
     void findBookingByIdWithBookingNotFoundExceptionTest() {
         user.setId(11L);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
 
@@ -211,7 +231,7 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByUserWithStateRejectedTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         BookingStateException exception = assertThrows(BookingStateException.class, () ->
                 bookingService.findAllBookingsByUser(0, 10, 2L, "rejected"));
@@ -221,7 +241,7 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByUserStateWaitingTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         BookingStateException exception = assertThrows(BookingStateException.class, () ->
                 bookingService.findAllBookingsByUser(0, 10, 2L, "waiting"));
@@ -231,7 +251,7 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByUserStateCurrentTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         BookingStateException exception = assertThrows(BookingStateException.class, () ->
                 bookingService.findAllBookingsByUser(0, 10, 2L, "current"));
@@ -241,7 +261,7 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByUserStateFutureTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         BookingStateException exception = assertThrows(BookingStateException.class, () ->
                 bookingService.findAllBookingsByUser(0, 10, 2L, "future"));
@@ -251,7 +271,7 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByUserStatePastTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         BookingStateException exception = assertThrows(BookingStateException.class, () ->
                 bookingService.findAllBookingsByUser(0, 10, 2L, "past"));
@@ -261,7 +281,7 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByUserStateAllTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
         when(bookingRepository.findByBookerIdOrderByStartDesc(any(), any())).thenReturn((List.of(booking)));
 
@@ -273,9 +293,9 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByOwnerStateRejectedTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(Collections.singletonList(item));
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
 
         when(bookingRepository.findBookingByItemOwnerAndStatus(any(), any(), any())).thenReturn(Collections.singletonList(booking));
 
@@ -287,9 +307,9 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByOwnerStateWaitingTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(Collections.singletonList(item));
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
 
         when(bookingRepository.findBookingByItemOwnerAndStatus(any(), any(), any())).thenReturn(Collections.singletonList(booking));
 
@@ -301,9 +321,9 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByOwnerStateCurrentTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(Collections.singletonList(item));
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
 
         when(bookingRepository.findBookingsByItemOwnerCurrent(any(), any())).thenReturn(Collections.singletonList(booking));
 
@@ -314,9 +334,9 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByOwnerStateFutureTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(Collections.singletonList(item));
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
 
         when(bookingRepository.findBookingByItemOwnerAndStartIsAfter(any(), any(), any())).thenReturn(Collections.singletonList(booking));
 
@@ -328,9 +348,9 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByOwnerStatePastTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(Collections.singletonList(item));
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
 
         when(bookingRepository.findBookingByItemOwnerAndEndIsBefore(anyLong(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(Collections.singletonList(booking));
 
@@ -342,9 +362,9 @@ public class BookingMockServiceTests {
 
     @Test
     void findAllBookingsByOwnerStateAllTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(Collections.singletonList(item));
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
 
         when(bookingRepository.findAllBookingsByOwner(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
 
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingGetDto;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
+import ru.practicum.shareit.booking.exceptions.BookingStatusConflictException;
+import ru.practicum.shareit.booking.exceptions.BookingStatusUpdateException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingOverlapStressTests {
+    private static final int THREADS = 8;
+    private static final int BOOKINGS_PER_THREAD = 40;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+
+    @Test
+    @Sql(value = {"/test-schema.sql", "/test-users.sql", "/test-items.sql"})
+    void concurrentCreateAndApproveNeverOverlapTest() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            Random random = new Random(thread);
+            futures.add(executor.submit(() -> {
+                start.await();
+                int approved = 0;
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    // вещи 1 и 3 доступны, вторая нет
+                    long itemId = random.nextBoolean() ? 1L : 3L;
+                    LocalDateTime bookingStart = base.plusHours(random.nextInt(48));
+                    BookingDto bookingDto = new BookingDto(itemId, bookingStart, bookingStart.plusHours(1 + random.nextInt(6)));
+                    try {
+                        BookingGetDto booking = bookingService.createBooking(bookingDto, 2L + random.nextInt(2));
+                        boolean approve = random.nextInt(4) != 0;
+                        bookingService.updateBookingStatus(booking.getId(), 1L, approve);
+                        if (approve) {
+                            approved++;
+                        }
+                    } catch (BookingOverlapException e) {
+                        // пересечение с подтверждённым бронированием - ожидаемый исход под нагрузкой
+                    }
+                }
+                return approved;
+            }));
+        }
+        start.countDown();
+        int approved = 0;
+        for (Future<Integer> future : futures) {
+            approved += future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Map<Long, List<Booking>> approvedByItem = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertThat(approvedByItem.values().stream().mapToInt(List::size).sum()).isEqualTo(approved);
+        assertThat(approved).isPositive().isLessThan(THREADS * BOOKINGS_PER_THREAD);
+        for (List<Booking> bookings : approvedByItem.values()) {
+            bookings.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertThat(bookings.get(i).getStart()).isAfterOrEqualTo(bookings.get(i - 1).getEnd());
+            }
+        }
+    }
+
+    @Test
+    @Sql(value = {"/test-schema.sql", "/test-users.sql", "/test-items.sql"})
+    void concurrentStatusUpdatesHaveSingleWinnerTest() throws Exception {
+        LocalDateTime bookingStart = LocalDateTime.now().plusDays(1);
+        BookingGetDto booking = bookingService.createBooking(new BookingDto(1L, bookingStart, bookingStart.plusDays(1)), 2L);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingStatus>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            boolean approve = thread % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    return bookingService.updateBookingStatus(booking.getId(), 1L, approve).getStatus();
+                } catch (BookingStatusConflictException | BookingStatusUpdateException e) {
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        List<BookingStatus> decisions = new ArrayList<>();
+        for (Future<BookingStatus> future : futures) {
+            BookingStatus status = future.get(1, TimeUnit.MINUTES);
+            if (status != null) {
+                decisions.add(status);
+            }
+        }
+        executor.shutdown();
+
+        assertThat(decisions).hasSize(1);
+        Booking saved = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertThat(saved.getStatus()).isEqualTo(decisions.get(0));
+        assertThat(saved.getVersion()).isEqualTo(1L);
+    }
+}
@@ -7,10 +7,13 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.dto.BookingGetItemDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,6 +23,8 @@ import java.util.List;
 public class BookingRepositoryTests {
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     private final int from = 0;
     private final int size = 10;
     private final long bookerId = 2L;
@@ -106,4 +111,71 @@ public class BookingRepositoryTests {
                 .findBookingsByItemOwnerCurrent(ownerId, LocalDateTime.now());
         Assertions.assertThat(bookings).isEmpty();
     }
+
+    @Test
+    void findLastBookingByItemIdTest() {
+        List<BookingGetItemDto> bookings = bookingRepository.findLastBookingByItemId(2L,
+                LocalDateTime.of(2023, 1, 1, 0, 0), BookingStatus.REJECTED, PageRequest.of(0, 1));
+        Assertions.assertThat(bookings).hasSize(1);
+        Assertions.assertThat(bookings.get(0).getBookerId()).isEqualTo(bookerId);
+    }
+
+    @Test
+    void findLastBookingByItemIdPrefersEndedOverCurrentTest() {
+        jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                "values ('2022-06-01 00:00:00', '2023-06-01 00:00:00', 2, 2, 'APPROVED')");
+        LocalDateTime now = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+        List<BookingGetItemDto> bookings = bookingRepository.findLastBookingByItemId(2L, now,
+                BookingStatus.REJECTED, PageRequest.of(0, 1));
+
+        Assertions.assertThat(bookings).hasSize(1);
+        Assertions.assertThat(bookings.get(0).getEnd()).isBefore(now);
+    }
+
+    @Test
+    void findLastBookingByItemIdFallsBackToCurrentTest() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+        List<BookingGetItemDto> bookings = bookingRepository.findLastBookingByItemId(1L, now,
+                BookingStatus.REJECTED, PageRequest.of(0, 1));
+
+        Assertions.assertThat(bookings).hasSize(1);
+        Assertions.assertThat(bookings.get(0).getStart()).isBefore(now);
+        Assertions.assertThat(bookings.get(0).getEnd()).isAfter(now);
+    }
+
+    @Test
+    void findNextBookingByItemIdTest() {
+        LocalDateTime now = LocalDateTime.of(2023, 1, 1, 0, 0);
+        Assertions.assertThat(bookingRepository.findNextBookingByItemId(1L, now, BookingStatus.REJECTED,
+                PageRequest.of(0, 1))).hasSize(1);
+        Assertions.assertThat(bookingRepository.findNextBookingByItemId(3L, now, BookingStatus.REJECTED,
+                PageRequest.of(0, 1))).isEmpty();
+    }
+
+    @Test
+    void findAllByBookerSeekTest() {
+        KeysetCursor cursor = KeysetCursor.FIRST;
+        List<Booking> firstPage = bookingRepository.findByBookerIdSeek(bookerId, cursor.getTime(), cursor.getId(),
+                PageRequest.of(0, 2));
+        Assertions.assertThat(firstPage).extracting(Booking::getId).containsExactly(3L, 1L);
+
+        Booking last = firstPage.get(1);
+        List<Booking> secondPage = bookingRepository.findByBookerIdSeek(bookerId, last.getStart(), last.getId(),
+                PageRequest.of(0, 2));
+        Assertions.assertThat(secondPage).extracting(Booking::getId).containsExactly(2L);
+    }
+
+    @Test
+    void findAllByOwnerStatusSeekTest() {
+        KeysetCursor cursor = KeysetCursor.FIRST;
+        List<Booking> bookings = bookingRepository.findBookingByItemOwnerAndStatusSeek(ownerId, BookingStatus.WAITING,
+                cursor.getTime(), cursor.getId(), PageRequest.of(0, 10));
+        Assertions.assertThat(bookings).extracting(Booking::getId).containsExactly(1L);
+
+        bookings = bookingRepository.findBookingByItemOwnerAndStatusSeek(ownerId, BookingStatus.WAITING,
+                bookings.get(0).getStart(), bookings.get(0).getId(), PageRequest.of(0, 10));
+        Assertions.assertThat(bookings).isEmpty();
+    }
 }
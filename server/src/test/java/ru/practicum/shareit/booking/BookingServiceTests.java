@@ -12,10 +12,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit4.SpringRunner;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingGetDto;
 import ru.practicum.shareit.booking.exceptions.BookingCreateException;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
 import ru.practicum.shareit.booking.exceptions.BookingStatusUpdateException;
 import ru.practicum.shareit.booking.exceptions.UserBookOwnItemException;
 import ru.practicum.shareit.booking.model.BookingState;
@@ -26,6 +28,8 @@ import ru.practicum.shareit.request.exceptions.RequestValidateException;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -299,4 +303,108 @@ class BookingServiceTests {
 
         assertEquals(exception.getMessage(), "Ошибка пагинации.");
     }
+
+    @Test
+    @Order(15)
+    @Sql(value = {"/test-schema.sql", "/test-users.sql", "/test-items.sql"})
+    void createBookingsTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        List<BookingDto> bookingDtos = List.of(
+                new BookingDto(1L, start, end),
+                new BookingDto(2L, start, end),
+                new BookingDto(99L, start, end),
+                new BookingDto(3L, end, start),
+                new BookingDto(4L, start, end)
+        );
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(bookingDtos, 2L);
+
+        assertThat(results)
+                .hasSize(5)
+                .extracting(BookingBatchResultDto::getIndex)
+                .containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(0).getBooking())
+                .hasFieldOrPropertyWithValue("id", 1L)
+                .hasFieldOrPropertyWithValue("status", BookingStatus.WAITING);
+        assertThat(results.get(1).getError()).isEqualTo("Ошибка создания бронирования.");
+        assertThat(results.get(2).getError()).isEqualTo("Вещь не найдена.");
+        assertThat(results.get(3).getBooking()).isNull();
+        assertThat(results.get(4).getBooking())
+                .hasFieldOrPropertyWithValue("id", 2L);
+        assertThat(results.get(4).getBooking().getItem()).hasFieldOrPropertyWithValue("id", 4L);
+        assertThat(bookingService.findAllBookingsByUser(0, 10, 2L, "ALL")).hasSize(2);
+    }
+
+    @Test
+    @Order(16)
+    void createBookingsByOwnerTest() {
+        List<BookingDto> bookingDtos = List.of(new BookingDto(1L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2)));
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(bookingDtos, 1L);
+
+        assertThat(results.get(0).getError()).isEqualTo("Пользователь является владельцем вещи.");
+        assertThrows(BookingCreateException.class, () -> bookingService.createBookings(List.of(), 1L));
+    }
+
+    @Test
+    @Order(16)
+    void createBookingsWithNullElementTest() {
+        List<BookingDto> bookingDtos = Arrays.asList(null, new BookingDto(1L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2)));
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(bookingDtos, 1L);
+
+        assertThat(results).extracting(BookingBatchResultDto::getIndex).containsExactly(0, 1);
+        assertThat(results.get(0).getError()).isEqualTo("Ошибка создания бронирования.");
+        assertThat(results.get(1).getError()).isEqualTo("Пользователь является владельцем вещи.");
+    }
+
+    @Test
+    @Order(17)
+    @Sql(value = {"/test-schema.sql", "/test-users.sql", "/test-items.sql"})
+    void approveOverlappingBookingTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        BookingGetDto first = bookingService.createBooking(new BookingDto(1L, start, start.plusDays(2)), 2L);
+        BookingGetDto second = bookingService.createBooking(new BookingDto(1L, start.plusDays(1), start.plusDays(3)), 3L);
+
+        bookingService.updateBookingStatus(first.getId(), 1L, true);
+
+        BookingOverlapException exception = assertThrows(BookingOverlapException.class, () ->
+                bookingService.updateBookingStatus(second.getId(), 1L, true));
+        assertEquals(exception.getMessage(), "Вещь уже забронирована на это время.");
+        assertThrows(BookingOverlapException.class, () ->
+                bookingService.createBooking(new BookingDto(1L, start.minusHours(1), start.plusHours(1)), 3L));
+        assertThat(bookingService.createBooking(new BookingDto(1L, start.plusDays(2), start.plusDays(4)), 3L))
+                .hasFieldOrPropertyWithValue("status", BookingStatus.WAITING);
+        assertThat(bookingService.createBookings(List.of(new BookingDto(1L, start, start.plusDays(1))), 3L).get(0)
+                .getError()).isEqualTo("Вещь уже забронирована на это время.");
+    }
+
+    @Test
+    @Order(18)
+    void decidedBookingStatusIsFinalTest() {
+        assertThrows(BookingStatusUpdateException.class, () -> bookingService.updateBookingStatus(1L, 1L, false));
+
+        assertThat(bookingService.updateBookingStatus(2L, 1L, false))
+                .hasFieldOrPropertyWithValue("status", BookingStatus.REJECTED);
+        assertThrows(BookingStatusUpdateException.class, () -> bookingService.updateBookingStatus(2L, 1L, true));
+        assertThat(bookingService.findBookingById(2L, 1L))
+                .hasFieldOrPropertyWithValue("status", BookingStatus.REJECTED);
+    }
+
+    @Test
+    @Order(19)
+    @Sql(value = {"/test-schema.sql", "/test-users.sql", "/test-items.sql"})
+    void approveStartedBookingOverlappingFinishedOneTest() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BookingGetDto finished = bookingService.createBooking(new BookingDto(1L, now.minusDays(3), now.minusDays(1)), 2L);
+        BookingGetDto started = bookingService.createBooking(new BookingDto(1L, now.minusDays(2), now.plusDays(1)), 3L);
+        bookingService.updateBookingStatus(finished.getId(), 1L, true);
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.updateBookingStatus(started.getId(), 1L, true));
+        assertThat(bookingService.findBookingById(started.getId(), 1L))
+                .hasFieldOrPropertyWithValue("status", BookingStatus.WAITING);
+    }
 }
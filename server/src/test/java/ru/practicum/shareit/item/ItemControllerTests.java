@@ -16,11 +16,14 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.item.dto.CommentDto;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -197,4 +200,66 @@ public class ItemControllerTests {
 
         Assertions.assertEquals(objectMapper.writeValueAsString(commentDto), content);
     }
+
+    @SneakyThrows
+    @Test
+    void importItemsFromNdjsonTest() {
+        List<ItemDto> imported = mockImportItems();
+        mockMvc.perform(MockMvcRequestBuilders.post("/items/import")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"item1\",\"description\":\"d1\",\"available\":true}\n"
+                                + "{\"name\":\"item2\",\"description\":\"d2\",\"available\":false,\"requestId\":1}\n")
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(2));
+
+        Assertions.assertEquals(2, imported.size());
+        Assertions.assertEquals("item2", imported.get(1).getName());
+        Assertions.assertEquals(1L, imported.get(1).getRequestId());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItemsFromJsonArrayTest() {
+        List<ItemDto> imported = mockImportItems();
+        mockMvc.perform(MockMvcRequestBuilders.post("/items/import")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                ItemDto.builder().name("item1").description("d1").available(true).build(),
+                                ItemDto.builder().name("item2").description("d2").available(true).build(),
+                                ItemDto.builder().name("item3").description("d3").available(true).build())))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(3));
+
+        Assertions.assertEquals(3, imported.size());
+        Assertions.assertEquals("item3", imported.get(2).getName());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItemsWithMalformedJsonTest() {
+        mockImportItems();
+        mockMvc.perform(MockMvcRequestBuilders.post("/items/import")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"item1\",\"description\":\"d1\",\"available\":true}\n{\"name\":")
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    // Сервис-заглушка вычитывает поток так же, как настоящий импорт
+    private List<ItemDto> mockImportItems() {
+        List<ItemDto> imported = new ArrayList<>();
+        when(itemService.importItems(any(), anyLong())).thenAnswer(invocation -> {
+            Iterator<ItemDto> itemDtos = invocation.getArgument(0);
+            itemDtos.forEachRemaining(imported::add);
+            ItemImportResultDto result = new ItemImportResultDto();
+            result.setImported(imported.size());
+            return result;
+        });
+        return imported;
+    }
 }
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Режим FULL_TEXT работает только на PostgreSQL, поэтому проверяется на встроенном сервере, а не на H2
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemFullTextSearchTests {
+    private static EmbeddedPostgres postgres;
+
+    private final ItemService itemService;
+
+    private final UserService userService;
+
+    private ItemDto drill;
+
+    private ItemDto saw;
+
+    private ItemDto bits;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        // В локали C PostgreSQL не приводит кириллицу к нижнему регистру, как и сервер с русской или UTF-8 локалью
+        postgres = EmbeddedPostgres.builder()
+                .setLocaleConfig("locale", "C.UTF-8")
+                .setLocaleConfig("encoding", "UTF8")
+                .start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.sql.init.schema-locations",
+                () -> "classpath:schema.sql,classpath:schema-full-text.sql,classpath:schema-booking-overlap.sql");
+        registry.add("spring.jpa.properties.shareit.id.allocation-size", () -> "50");
+        registry.add("shareit.item.search-mode", () -> "FULL_TEXT");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void createItems() {
+        UserDto owner = userService.saveUser(UserDto.builder().name("owner").email("owner@email.ru").build());
+        drill = itemService.saveItem(ItemDto.builder()
+                .name("Дрель")
+                .description("Ударная дрель с набором свёрл")
+                .available(true)
+                .build(), owner.getId());
+        saw = itemService.saveItem(ItemDto.builder()
+                .name("Пила")
+                .description("Ручная пила по дереву")
+                .available(true)
+                .build(), owner.getId());
+        bits = itemService.saveItem(ItemDto.builder()
+                .name("Свёрла")
+                .description("Насадки на дрель")
+                .available(true)
+                .build(), owner.getId());
+        itemService.saveItem(ItemDto.builder()
+                .name("Дрель-шуруповёрт")
+                .description("Сломана")
+                .available(false)
+                .build(), owner.getId());
+    }
+
+    @Test
+    void searchFindsAllWordsByPrefixTest() {
+        assertThat(ids(itemService.searchItemsByText("ПИЛ ручн", 0, 10))).containsExactly(saw.getId());
+        assertThat(ids(itemService.searchItemsByText("свёрл насад", 0, 10))).containsExactly(bits.getId());
+    }
+
+    @Test
+    void searchRanksMoreMatchesFirstTest() {
+        assertThat(ids(itemService.searchItemsByText("дре", 0, 10))).containsExactly(drill.getId(), bits.getId());
+        assertThat(ids(itemService.searchItemsByText("дре", 1, 1))).containsExactly(bits.getId());
+    }
+
+    @Test
+    void searchDoesNotMatchInsideWordsTest() {
+        assertThat(itemService.searchItemsByText("рель", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchIgnoresTsqueryOperatorsTest() {
+        assertThat(ids(itemService.searchItemsByText("ударная&", 0, 10))).containsExactly(drill.getId());
+        assertThat(ids(itemService.searchItemsByText("!(дрель | пила):*", 0, 10))).isEmpty();
+        assertThat(ids(itemService.searchItemsByText("'пила'", 0, 10))).containsExactly(saw.getId());
+        assertThat(itemService.searchItemsByText("(", 0, 10)).isEmpty();
+        assertThat(itemService.searchItemsByText("&|!():*'", 0, 10)).isEmpty();
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
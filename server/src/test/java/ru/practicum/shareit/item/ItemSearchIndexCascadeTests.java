@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "shareit.item.search-mode=IN_MEMORY")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemSearchIndexCascadeTests {
+    private final ItemSearchIndex itemSearchIndex;
+
+    private final UserService userService;
+
+    @Test
+    @Sql(value = {"/test-schema.sql", "/test-users.sql", "/test-request.sql", "/test-items-with-requests.sql"})
+    void deleteRequestorRemovesRequestItemsFromIndexTest() {
+        itemSearchIndex.rebuild();
+        assertThat(itemSearchIndex.search("item", 0, 10)).hasSize(4);
+
+        userService.deleteUserById(2L);
+
+        assertThat(itemSearchIndex.search("item", 0, 10)).isEmpty();
+        assertThat(itemSearchIndex.size()).isZero();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemSearchMode;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchIndexTests {
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    public void start() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAll()).thenReturn(List.of(
+                item(1L, "Дрель", "Простая дрель", true),
+                item(2L, "Отвертка", "Аккумуляторная отвертка", true),
+                item(3L, "Дрель ударная", "Аккумуляторная дрель", false)));
+        index = new ItemSearchIndex(itemRepository, ItemSearchMode.IN_MEMORY);
+        index.rebuild();
+    }
+
+    @Test
+    void searchByPrefixTest() {
+        List<ItemDto> result = index.search("ДРЕ", 0, 10);
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+    }
+
+    @Test
+    void searchAllWordsTest() {
+        assertEquals(2L, index.search("аккумуляторная отвертка", 0, 10).get(0).getId());
+        assertTrue(index.search("аккумуляторная дрель", 0, 10).isEmpty());
+    }
+
+    @Test
+    void updateAvailableTest() {
+        index.index(item(3L, "Дрель ударная", "Аккумуляторная дрель", true));
+        assertEquals(2, index.search("дрель", 0, 10).size());
+
+        index.index(item(1L, "Дрель", "Простая дрель", false));
+        List<ItemDto> result = index.search("дрель", 0, 10);
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).getId());
+    }
+
+    @Test
+    void updateTextTest() {
+        index.index(item(2L, "Шуруповерт", "Аккумуляторный", true));
+
+        assertTrue(index.search("отвертка", 0, 10).isEmpty());
+        assertEquals(2L, index.search("шуруп", 0, 10).get(0).getId());
+    }
+
+    @Test
+    void searchWithPaginationTest() {
+        index.index(item(3L, "Дрель ударная", "Аккумуляторная дрель", true));
+
+        List<ItemDto> result = index.search("дрель", 1, 10);
+
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).getId());
+        assertTrue(index.estimateMemoryUsage() > 0);
+    }
+
+    @Test
+    void removeAllTest() {
+        index.removeAll(List.of(1L, 3L));
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(1, index.size());
+        assertEquals(2L, index.search("отвертка", 0, 10).get(0).getId());
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
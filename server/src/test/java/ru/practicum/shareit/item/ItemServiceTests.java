@@ -8,15 +8,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingGetDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.exceptions.CommentException;
+import ru.practicum.shareit.item.exceptions.ItemValidateException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.exceptions.RequestNotFoundException;
 import ru.practicum.shareit.request.exceptions.RequestValidateException;
+import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -24,10 +30,13 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Transactional
@@ -44,6 +53,8 @@ public class ItemServiceTests {
 
     private final ItemService itemService;
 
+    private final ItemRequestService itemRequestService;
+
     private final UserDto userDto = UserDto.builder()
             .name("name")
             .email("user@email.com")
@@ -89,6 +100,49 @@ public class ItemServiceTests {
         assertEquals(exception.getMessage(), "Запрос не найден.");
     }
 
+    @Test
+    void createItemWithValidateExceptionTest() {
+        UserDto owner = userService.saveUser(userDto);
+        itemDto.setName(" ");
+
+        ItemValidateException exception = Assertions.assertThrows(ItemValidateException.class, () ->
+                itemService.saveItem(itemDto, owner.getId()));
+
+        assertEquals(exception.getMessage(), "Ошибка валидации вещи.");
+    }
+
+    @Test
+    void importItemsTest() {
+        UserDto owner = userService.saveUser(userDto);
+        UserDto requestor = userService.saveUser(bookerDto);
+        ItemRequestDto request = itemRequestService.createRequest(ItemRequestDto.builder()
+                .description("request")
+                .build(), requestor.getId());
+
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            itemDtos.add(ItemDto.builder()
+                    .name("item" + i)
+                    .description("description" + i)
+                    .available(true)
+                    .requestId(i % 10 == 0 ? request.getId() : null)
+                    .build());
+        }
+        itemDtos.get(3).setName("");
+        itemDtos.get(70).setRequestId(999L);
+
+        ItemImportResultDto result = itemService.importItems(itemDtos.iterator(), owner.getId());
+
+        assertEquals(118, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(3L, 70L), result.getErrors().stream()
+                .map(ItemImportErrorDto::getIndex)
+                .collect(Collectors.toList()));
+        List<ItemDto> items = itemService.findAllItemsOfUser(owner.getId(), 0, 200);
+        assertEquals(118, items.size());
+        assertEquals(11, items.stream().filter(item -> request.getId().equals(item.getRequestId())).count());
+    }
+
     @Test
     void findAllItemsOfUserTest() {
         UserDto owner = userService.saveUser(userDto);
@@ -104,6 +158,57 @@ public class ItemServiceTests {
         assertEquals(2, itemResponseDtoList.size());
     }
 
+    @Test
+    void findAllItemsOfUserWithBookingsAndCommentsTest() {
+        UserDto owner = userService.saveUser(userDto);
+        UserDto booker = userService.saveUser(bookerDto);
+        ItemDto item = itemService.saveItem(itemDto, owner.getId());
+        ItemDto item2 = itemService.saveItem(itemDto2, owner.getId());
+
+        BookingGetDto lastBooking = bookingService.createBooking(new BookingDto(item.getId(),
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1)), booker.getId());
+        BookingGetDto nextBooking = bookingService.createBooking(new BookingDto(item.getId(),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)), booker.getId());
+        bookingService.createBooking(new BookingDto(item.getId(),
+                LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4)), booker.getId());
+        itemService.createComment(CommentDto.builder().text("comment").build(), item.getId(), booker.getId());
+
+        List<ItemDto> items = itemService.findAllItemsOfUser(owner.getId(), 0, 10);
+
+        assertEquals(2, items.size());
+        assertEquals(item.getId(), items.get(0).getId());
+        assertEquals(lastBooking.getId(), items.get(0).getLastBooking().getId());
+        assertEquals(nextBooking.getId(), items.get(0).getNextBooking().getId());
+        assertEquals(booker.getId(), items.get(0).getNextBooking().getBookerId());
+        assertEquals(1, items.get(0).getComments().size());
+        assertEquals(item2.getId(), items.get(1).getId());
+        assertNull(items.get(1).getLastBooking());
+        assertNull(items.get(1).getNextBooking());
+        assertTrue(items.get(1).getComments().isEmpty());
+    }
+
+    @Test
+    void findAllItemsOfUserLastBookingPrefersEndedTest() {
+        UserDto owner = userService.saveUser(userDto);
+        UserDto booker = userService.saveUser(bookerDto);
+        ItemDto item = itemService.saveItem(itemDto, owner.getId());
+        ItemDto item2 = itemService.saveItem(itemDto2, owner.getId());
+
+        BookingGetDto ended = bookingService.createBooking(new BookingDto(item.getId(),
+                LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2)), booker.getId());
+        bookingService.createBooking(new BookingDto(item.getId(),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1)), booker.getId());
+        BookingGetDto current = bookingService.createBooking(new BookingDto(item2.getId(),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1)), booker.getId());
+
+        List<ItemDto> items = itemService.findAllItemsOfUser(owner.getId(), 0, 10);
+
+        assertEquals(2, items.size());
+        assertEquals(ended.getId(), items.get(0).getLastBooking().getId());
+        assertEquals(current.getId(), items.get(1).getLastBooking().getId());
+        assertNull(items.get(1).getNextBooking());
+    }
+
     @Test
     void findAllItemsOfUserWithPaginationErrorTest() {
         UserDto owner = userService.saveUser(userDto);
@@ -164,6 +269,21 @@ public class ItemServiceTests {
         assertTrue(result.stream().anyMatch(item -> item.getDescription().equals("description 2")));
     }
 
+    @Test
+    void searchByTextRanksNameMatchesFirstTest() {
+        UserDto owner = userService.saveUser(userDto);
+        ItemDto byDescription = itemService.saveItem(ItemDto.builder().name("Отвертка")
+                .description("Не дрель").available(true).build(), owner.getId());
+        ItemDto byName = itemService.saveItem(ItemDto.builder().name("Дрель")
+                .description("Аккумуляторная").available(true).build(), owner.getId());
+
+        List<ItemDto> result = itemService.searchItemsByText("дрель", 0, 10);
+
+        assertEquals(2, result.size());
+        assertEquals(byName.getId(), result.get(0).getId());
+        assertEquals(byDescription.getId(), result.get(1).getId());
+    }
+
     @Test
     void searchByTextReturnsEmptyListTest() {
         assertEquals(itemService.searchItemsByText("", 0, 10), Collections.emptyList());
@@ -10,14 +10,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestIncomeDto;
+import ru.practicum.shareit.request.dto.ItemRequestLongDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -46,6 +50,26 @@ public class ItemRequestControllerTests {
         verify(requestService).findRequestById(requestId, userId);
     }
 
+    @SneakyThrows
+    @Test
+    void findAllRequestsByCursorTest() {
+        ItemRequestLongDto request = ItemRequestLongDto.builder()
+                .id(3L)
+                .created(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .build();
+        when(requestService.findAllRequests(any(KeysetCursor.class), anyInt(), anyLong()))
+                .thenReturn(List.of(request));
+
+        String cursor = mockMvc.perform(get("/requests/all?cursor=&size=1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+
+        KeysetCursor nextCursor = KeysetCursor.decode(cursor);
+        Assertions.assertEquals(request.getCreated(), nextCursor.getTime());
+        Assertions.assertEquals(request.getId(), nextCursor.getId());
+    }
+
     @SneakyThrows
     @Test
     void findAllRequestsTest() {
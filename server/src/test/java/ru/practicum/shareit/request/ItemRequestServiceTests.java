@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit4.SpringRunner;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestLongDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -120,4 +121,18 @@ class ItemRequestServiceTests {
                     assertThat(i.getItems().get(0)).hasFieldOrPropertyWithValue("itemId", 1L);
                 });
     }
+
+    @Test
+    @Order(4)
+    void findAllRequestsByCursorTest() {
+        long userId = 2L;
+
+        List<ItemRequestLongDto> requestsDto = requestService.findAllRequests(KeysetCursor.FIRST, 10, userId);
+
+        assertThat(requestsDto).hasSize(1);
+        ItemRequestLongDto last = requestsDto.get(0);
+        assertThat(last.getItems()).hasSize(5);
+        assertThat(requestService.findAllRequests(new KeysetCursor(last.getCreated(), last.getId()), 10, userId))
+                .isEmpty();
+    }
 }
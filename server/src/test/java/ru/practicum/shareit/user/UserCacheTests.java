@@ -0,0 +1,84 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
+import ru.practicum.shareit.user.exceptions.UserNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class UserCacheTests {
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    @Test
+    @Sql(value = {"/test-schema.sql"})
+    void updateUserEvictsCachedUserTest() {
+        UserDto user = userService.saveUser(UserDto.builder().name("user").email("user@yandex.ru").build());
+        userService.findUserById(user.getId());
+        userService.findUserById(user.getId());
+
+        Cache cache = cacheManager.getCache(UserRepository.USERS_CACHE);
+        assertThat(cache).isNotNull();
+        assertThat(cache.get(user.getId())).isNotNull();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", UserRepository.USERS_CACHE)
+                .tag("result", "hit").functionCounter().count()).isPositive();
+
+        userService.updateUser(UserDto.builder().name("userUpdated").build(), user.getId());
+
+        assertThat(cache.get(user.getId())).isNull();
+        assertThat(userService.findUserById(user.getId()))
+                .hasFieldOrPropertyWithValue("name", "userUpdated")
+                .hasFieldOrPropertyWithValue("email", "user@yandex.ru");
+    }
+
+    @Test
+    @Sql(value = {"/test-schema.sql"})
+    void deleteUserEvictsCachedUserAndExistenceTest() {
+        UserDto user = userService.saveUser(UserDto.builder().name("user").email("user@yandex.ru").build());
+        userService.findUserById(user.getId());
+        assertThat(userRepository.existsById(user.getId())).isTrue();
+        assertThat(cacheManager.getCache(UserRepository.USER_EXISTS_CACHE).get(user.getId())).isNotNull();
+
+        userService.deleteUserById(user.getId());
+
+        assertThat(cacheManager.getCache(UserRepository.USERS_CACHE).get(user.getId())).isNull();
+        assertThat(cacheManager.getCache(UserRepository.USER_EXISTS_CACHE).get(user.getId())).isNull();
+        assertThat(userRepository.existsById(user.getId())).isFalse();
+        assertThrows(UserNotFoundException.class, () -> userService.findUserById(user.getId()));
+    }
+
+    @Test
+    @Sql(value = {"/test-schema.sql"})
+    void cacheHoldsSnapshotAndIsEvictedAfterCommitTest() {
+        Cache cache = cacheManager.getCache(UserRepository.USERS_CACHE);
+        cache.clear();
+        UserDto user = userService.saveUser(UserDto.builder().name("user").email("user@yandex.ru").build());
+        userService.findUserById(user.getId());
+        assertThat(cache.get(user.getId()).get()).isEqualTo(new UserSnapshot(user.getId(), "user", "user@yandex.ru"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.updateUser(UserDto.builder().name("userUpdated").build(), user.getId());
+            assertThat(cache.get(user.getId())).isNotNull();
+        });
+
+        assertThat(cache.get(user.getId())).isNull();
+        assertThat(userService.findUserById(user.getId())).hasFieldOrPropertyWithValue("name", "userUpdated");
+    }
+}
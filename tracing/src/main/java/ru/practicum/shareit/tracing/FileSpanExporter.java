@@ -0,0 +1,102 @@
+package ru.practicum.shareit.tracing;
+
+import brave.Tracing;
+import brave.TracingCustomizer;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Пишет завершённые span в файл по одному JSON-объекту в строке, поля и единицы (микросекунды) как в Zipkin v2.
+ * Трассу запроса можно собрать по traceId без коллектора, в том числе склеив файлы шлюза и сервера.
+ * Обработчик подключается через TracingCustomizer, а не бином SpanHandler: так он стоит после обработчика Sleuth,
+ * который переносит baggage в теги, и span попадает в файл уже с X-Sharer-User-Id.
+ */
+@Slf4j
+public class FileSpanExporter implements TracingCustomizer, Closeable {
+    private final ObjectMapper objectMapper;
+    private final Writer writer;
+
+    public FileSpanExporter(Path file, ObjectMapper objectMapper) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        this.objectMapper = objectMapper;
+        log.info("Трассы пишутся в файл {}.", file.toAbsolutePath());
+    }
+
+    @Override
+    public void customize(Tracing.Builder builder) {
+        builder.addSpanHandler(new SpanHandler() {
+            @Override
+            public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                if (cause != Cause.ABANDONED) {
+                    write(span);
+                }
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+
+    private void write(MutableSpan span) {
+        try {
+            String json = objectMapper.writeValueAsString(toMap(span));
+            synchronized (writer) {
+                writer.write(json);
+                writer.write('\n');
+                writer.flush();
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось записать span {} трассы {}: {}", span.id(), span.traceId(), e.getMessage());
+        }
+    }
+
+    private Map<String, Object> toMap(MutableSpan span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.traceId());
+        if (span.parentId() != null) {
+            json.put("parentId", span.parentId());
+        }
+        json.put("id", span.id());
+        if (span.kind() != null) {
+            json.put("kind", span.kind().name());
+        }
+        json.put("name", span.name());
+        json.put("timestamp", span.startTimestamp());
+        if (span.finishTimestamp() != 0) {
+            json.put("duration", span.finishTimestamp() - span.startTimestamp());
+        }
+        json.put("localServiceName", span.localServiceName());
+        if (span.remoteServiceName() != null) {
+            json.put("remoteServiceName", span.remoteServiceName());
+        }
+        Map<String, String> tags = new LinkedHashMap<>(span.tags());
+        if (span.error() != null && !tags.containsKey("error")) {
+            tags.put("error", span.error().toString());
+        }
+        json.put("tags", tags);
+        return json;
+    }
+}
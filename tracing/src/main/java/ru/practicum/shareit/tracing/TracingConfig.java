@@ -0,0 +1,25 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Общая для шлюза и сервера выгрузка span в файл, включается свойством shareit.tracing.file.
+ * Что попадает в трассу, настраивается в application.properties каждого приложения.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty("shareit.tracing.file")
+    public FileSpanExporter fileSpanExporter(@Value("${shareit.tracing.file}") Path file,
+                                             ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(file, objectMapper);
+    }
+}